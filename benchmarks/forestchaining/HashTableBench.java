@@ -0,0 +1,169 @@
+package forestchaining;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of HashTable add, contains, remove and rehash
+ * for every chain kind, with java.util.HashSet as the baseline;
+ * containsMissBloom runs the misses through the Bloom filter
+ * Keys are spread over the whole int range, multiples of 64, which pile
+ * up in few buckets under the default modulo indexing, or consecutive
+ * even numbers; indexing is the default modulo or power-of-two
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashTableBench {
+
+
+    @Param({"1000", "100000"})
+    int size;
+
+    @Param({"simple", "balanced", "adaptive"})
+    String chains;
+
+    @Param({"uniform", "clustered", "sequential"})
+    String keys;
+
+    @Param({"modulo", "pow2"})
+    String indexing;
+
+    private Integer[] present;//values in the filled tables
+    private Integer[] absent;//values in neither
+    private HashTable<Integer> table;
+    private HashTable<Integer> bloomTable;//same values, Bloom filter on
+    private HashSet<Integer> hashSet;
+    private int next;//rotates through the key arrays
+    private int filledLength;//length of the filled table, for rehash
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        java.util.Set<Integer> seen = new HashSet<>();
+        present = new Integer[size];
+        absent = new Integer[size];
+        for (int i = 0; i < 2 * size; ) {
+            int v = keys.equals("uniform") ? r.nextInt()
+                    : keys.equals("clustered") ? r.nextInt(8 * size) * 64 : i * 2;
+            if (seen.add(v)) {
+                if (i < size)
+                    present[i] = v;
+                else
+                    absent[i - size] = v;
+                i++;
+            }
+        }
+
+        table = newTable(5);
+        bloomTable = newTable(5);
+        bloomTable.setBloomFilter(true);
+        hashSet = new HashSet<>();
+        for (Integer v : present) {
+            table.add(v);
+            bloomTable.add(v);
+            hashSet.add(v);
+        }
+        filledLength = table.getLength();
+    }
+
+    /**
+     * Creates an empty table of the chain kind and indexing under test
+     *
+     * @param length the length
+     * @return the table
+     */
+    private HashTable<Integer> newTable(int length) {
+        HashTable<Integer> t = new HashTable<>(length, chains.equals("balanced"), chains.equals("adaptive"));
+        t.setPowerOfTwoIndexing(indexing.equals("pow2"));
+        return t;
+    }
+
+    /**
+     * Next index into the key arrays
+     *
+     * @return the index
+     */
+    private int next() {
+        if (++next == size)
+            next = 0;
+        return next;
+    }
+
+    @Benchmark
+    public HashTable<Integer> fill() {
+        HashTable<Integer> t = newTable(5);//grows by doubling
+        for (Integer v : present)
+            t.add(v);
+        return t;
+    }
+
+    @Benchmark
+    public HashSet<Integer> fillHashSet() {
+        HashSet<Integer> s = new HashSet<>();
+        for (Integer v : present)
+            s.add(v);
+        return s;
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return table.contains(present[next()]);
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return table.contains(absent[next()]);
+    }
+
+    @Benchmark
+    public boolean containsMissBloom() {
+        return bloomTable.contains(absent[next()]);
+    }
+
+    @Benchmark
+    public boolean containsHitHashSet() {
+        return hashSet.contains(present[next()]);
+    }
+
+    @Benchmark
+    public boolean containsMissHashSet() {
+        return hashSet.contains(absent[next()]);
+    }
+
+    @Benchmark
+    public boolean removeAdd() {//keeps the size steady
+        Integer v = present[next()];
+        return table.remove(v) & table.add(v);
+    }
+
+    @Benchmark
+    public boolean removeAddHashSet() {
+        Integer v = present[next()];
+        return hashSet.remove(v) & hashSet.add(v);
+    }
+
+    @Benchmark
+    public boolean rehash() {//alternates between two lengths, both below 80% load
+        int length = table.getLength();
+        if (table.isPowerOfTwoIndexing())//lengths round up to a power of two
+            return table.rehash(length == filledLength ? length * 2 : filledLength);
+        return table.rehash(length % 2 == 0 ? length + 1 : length - 1);
+    }
+
+}
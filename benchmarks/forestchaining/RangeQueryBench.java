@@ -0,0 +1,132 @@
+package forestchaining;
+
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH throughput of range and floor queries on a Set, three ways:
+ * a full scan of toArray() (what callers had to do before), the chains
+ * pruning their subtrees, and the HashTable's sorted index;
+ * java.util.TreeSet is the baseline
+ * Values are spread over [0, 16 * size), so a range of width w holds
+ * about w / 16 of them
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeQueryBench {
+
+
+    @Param({"10000", "100000"})
+    int size;
+
+    @Param({"160", "16000"})
+    int width;
+
+    private Set<Integer> chains;//sorted index off
+    private Set<Integer> indexed;//same values, sorted index on
+    private TreeSet<Integer> treeSet;
+    private Integer[] lows;//query starts
+    private int next;//rotates through lows
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        chains = new Set<>();
+        treeSet = new TreeSet<>();
+        while (chains.size() < size) {
+            int v = r.nextInt(16 * size);
+            chains.add(v);
+            treeSet.add(v);
+        }
+        indexed = chains.union(new Set<>());
+        ((HashTable<Integer>) indexed.getStorage()).setSortedIndex(true);
+
+        lows = new Integer[1024];
+        for (int i = 0; i < lows.length; i++)
+            lows[i] = r.nextInt(16 * size);
+    }
+
+    /**
+     * Next query start
+     *
+     * @return the low bound
+     */
+    private Integer low() {
+        return lows[next++ & (lows.length - 1)];
+    }
+
+    @Benchmark
+    public int rangeScan() {
+        Integer lo = low();
+        int hi = lo + width;
+        int count = 0;
+        for (Object v : chains.toArray()) {
+            int x = (Integer) v;
+            if (x >= lo && x < hi)
+                count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public Set<Integer> rangeChains() {
+        Integer lo = low();
+        return chains.rangeQuery(lo, lo + width);
+    }
+
+    @Benchmark
+    public Set<Integer> rangeIndexed() {
+        Integer lo = low();
+        return indexed.rangeQuery(lo, lo + width);
+    }
+
+    @Benchmark
+    public int rangeTreeSet() {
+        Integer lo = low();
+        return treeSet.subSet(lo, lo + width).size();
+    }
+
+    @Benchmark
+    public Integer floorScan() {
+        int value = low();
+        Integer best = null;
+        for (Object v : chains.toArray()) {
+            int x = (Integer) v;
+            if (x <= value && (best == null || x > best))
+                best = x;
+        }
+        return best;
+    }
+
+    @Benchmark
+    public Integer floorChains() {
+        return chains.floor(low());
+    }
+
+    @Benchmark
+    public Integer floorIndexed() {
+        return indexed.floor(low());
+    }
+
+    @Benchmark
+    public Integer floorTreeSet() {
+        return treeSet.floor(low());
+    }
+
+}
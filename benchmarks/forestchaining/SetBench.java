@@ -0,0 +1,198 @@
+package forestchaining;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of every Set algebra operation, with the same
+ * operation written on java.util.HashSet and TreeSet as baselines
+ * a holds size values and b holds size / 2, half of them shared with a;
+ * sub is a subset of a, used for the successful isSubset walk
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetBench {
+
+
+    @Param({"100", "10000", "100000"})
+    int size;
+
+    private Set<Integer> a, b, sub;
+    private HashSet<Integer> hashA, hashB, hashSub;
+    private TreeSet<Integer> treeA, treeB, treeSub;
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        java.util.Set<Integer> seen = new HashSet<>();
+        a = new Set<>();
+        b = new Set<>();
+        sub = new Set<>();
+        while (a.size() < size) {
+            int v = r.nextInt();
+            if (seen.add(v)) {
+                a.add(v);
+                if (a.size() % 4 == 0)
+                    b.add(v);//shared
+                if (a.size() % 3 == 0)
+                    sub.add(v);
+            }
+        }
+        while (b.size() < size / 2) {
+            int v = r.nextInt();
+            if (seen.add(v))
+                b.add(v);
+        }
+
+        hashA = copy(a, new HashSet<>());
+        hashB = copy(b, new HashSet<>());
+        hashSub = copy(sub, new HashSet<>());
+        treeA = copy(a, new TreeSet<>());
+        treeB = copy(b, new TreeSet<>());
+        treeSub = copy(sub, new TreeSet<>());
+    }
+
+    /**
+     * Copies a Set into a java.util one
+     *
+     * @param <S> the target type
+     * @param from the source
+     * @param to the target
+     * @return to
+     */
+    private static <S extends java.util.Set<Integer>> S copy(Set<Integer> from, S to) {
+        for (Integer v : from)
+            to.add(v);
+        return to;
+    }
+
+    @Benchmark
+    public Set<Integer> union() {
+        return a.union(b);
+    }
+
+    @Benchmark
+    public Set<Integer> intersection() {
+        return a.intersection(b);
+    }
+
+    @Benchmark
+    public Set<Integer> difference() {
+        return a.difference(b);
+    }
+
+    @Benchmark
+    public Set<Integer> symmetricDifference() {
+        return a.symmetricDifference(b);
+    }
+
+    @Benchmark
+    public boolean isSubset() {
+        return sub.isSubset(a);
+    }
+
+    @Benchmark
+    public boolean isDisjoint() {
+        return a.isDisjoint(b);
+    }
+
+    @Benchmark
+    public HashSet<Integer> unionHashSet() {
+        HashSet<Integer> s = new HashSet<>(hashA);
+        s.addAll(hashB);
+        return s;
+    }
+
+    @Benchmark
+    public HashSet<Integer> intersectionHashSet() {
+        HashSet<Integer> s = new HashSet<>(hashB);//the smaller one
+        s.retainAll(hashA);
+        return s;
+    }
+
+    @Benchmark
+    public HashSet<Integer> differenceHashSet() {
+        HashSet<Integer> s = new HashSet<>(hashA);
+        s.removeAll(hashB);
+        return s;
+    }
+
+    @Benchmark
+    public HashSet<Integer> symmetricDifferenceHashSet() {
+        HashSet<Integer> s = new HashSet<>(hashA);
+        for (Integer v : hashB) {
+            if (!s.add(v))
+                s.remove(v);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public boolean isSubsetHashSet() {
+        return hashA.containsAll(hashSub);
+    }
+
+    @Benchmark
+    public boolean isDisjointHashSet() {
+        return java.util.Collections.disjoint(hashA, hashB);
+    }
+
+    @Benchmark
+    public TreeSet<Integer> unionTreeSet() {
+        TreeSet<Integer> s = new TreeSet<>(treeA);
+        s.addAll(treeB);
+        return s;
+    }
+
+    @Benchmark
+    public TreeSet<Integer> intersectionTreeSet() {
+        TreeSet<Integer> s = new TreeSet<>(treeB);
+        s.retainAll(treeA);
+        return s;
+    }
+
+    @Benchmark
+    public TreeSet<Integer> differenceTreeSet() {
+        TreeSet<Integer> s = new TreeSet<>(treeA);
+        s.removeAll(treeB);
+        return s;
+    }
+
+    @Benchmark
+    public TreeSet<Integer> symmetricDifferenceTreeSet() {
+        TreeSet<Integer> s = new TreeSet<>(treeA);
+        for (Integer v : treeB) {
+            if (!s.add(v))
+                s.remove(v);
+        }
+        return s;
+    }
+
+    @Benchmark
+    public boolean isSubsetTreeSet() {
+        return treeA.containsAll(treeSub);
+    }
+
+    @Benchmark
+    public boolean isDisjointTreeSet() {
+        return java.util.Collections.disjoint(treeA, treeB);
+    }
+
+}
@@ -0,0 +1,300 @@
+package forestchaining;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of SimpleBST, the default chain, at the shapes a chain
+ * can take: degenerate (sorted inserts), random, and perfectly balanced
+ * (median-first inserts); BalancedBST, TreeSet and RecursiveBST, the
+ * recursive SimpleBST code the iterative one replaced, are the baselines
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimpleBSTBench {
+
+
+    @Param({"8", "64", "1024"})
+    int size;
+
+    @Param({"sorted", "random", "balanced"})
+    String shape;
+
+    private Integer[] order;//insertion order giving the shape
+    private Integer[] lookups;//the same values, shuffled
+    private SimpleBST<Integer> tree;
+    private RecursiveBST<Integer> recursive;
+    private BalancedBST<Integer> avl;
+    private TreeSet<Integer> treeSet;
+    private int next;//rotates through lookups
+
+    @Setup
+    public void setup() {
+        Random r = new Random(42);
+        Integer[] sorted = new Integer[size];
+        for (int i = 0; i < size; i++)
+            sorted[i] = i * 2;//odd numbers miss
+
+        if (shape.equals("sorted"))
+            order = sorted;
+        else if (shape.equals("random"))
+            order = shuffled(sorted, r);
+        else {
+            order = new Integer[size];
+            medianFirst(sorted, 0, size, order, 0);
+        }
+        lookups = shuffled(sorted, r);
+
+        tree = new SimpleBST<>();
+        recursive = new RecursiveBST<>();
+        avl = new BalancedBST<>();
+        treeSet = new TreeSet<>();
+        for (Integer v : order) {
+            tree.insert(v);
+            recursive.insert(v);
+            avl.insert(v);
+            treeSet.add(v);
+        }
+    }
+
+    /**
+     * The recursive insert/remove/height/toArray SimpleBST used before,
+     * with two compareTo calls per level on the way down
+     *
+     * @param <T> the generic type
+     */
+    static class RecursiveBST<T extends Comparable<T>> {
+        SimpleBST.Node<T> root;
+        int size;
+
+        boolean insert(T value) {
+            int prevSize = size;
+            root = insert(value, root);
+            return prevSize != size;
+        }
+
+        private SimpleBST.Node<T> insert(T x, SimpleBST.Node<T> t) {
+            if (t == null) {
+                t = new SimpleBST.Node<>(x);
+                size++;
+            } else if (x.compareTo(t.data) < 0)
+                t.left = insert(x, t.left);
+            else if (x.compareTo(t.data) > 0)
+                t.right = insert(x, t.right);
+            return t;
+        }
+
+        boolean remove(T value) {
+            int prevSize = size;
+            root = remove(value, root);
+            return prevSize != size;
+        }
+
+        private SimpleBST.Node<T> remove(T x, SimpleBST.Node<T> t) {
+            if (t == null)
+                return t;
+            if (x.compareTo(t.data) < 0)
+                t.left = remove(x, t.left);
+            else if (x.compareTo(t.data) > 0)
+                t.right = remove(x, t.right);
+            else if (t.left != null && t.right != null) {
+                size--;
+                t.data = SimpleBST.findMax(t.left);
+                t.left = SimpleBST.removeMax(t.left);
+            } else {
+                t = (t.left != null) ? t.left : t.right;
+                size--;
+            }
+            return t;
+        }
+
+        int height() {
+            return height(root);
+        }
+
+        private int height(SimpleBST.Node<T> t) {
+            return t == null ? -1 : 1 + Math.max(height(t.left), height(t.right));
+        }
+
+        Object[] toArray() {
+            Object[] array = new Object[size];
+            toArray(0, array, root);
+            return array;
+        }
+
+        private int toArray(int i, Object[] array, SimpleBST.Node<T> t) {
+            if (t == null)
+                return i;
+            array[i++] = t.data;
+            i = toArray(i, array, t.left);
+            return toArray(i, array, t.right);
+        }
+    }
+
+    /**
+     * Returns a shuffled copy
+     *
+     * @param values the values
+     * @param r the random source
+     * @return the copy
+     */
+    private static Integer[] shuffled(Integer[] values, Random r) {
+        Integer[] copy = Arrays.copyOf(values, values.length);
+        for (int i = copy.length - 1; i > 0; i--) {
+            int j = r.nextInt(i + 1);
+            Integer t = copy[i];
+            copy[i] = copy[j];
+            copy[j] = t;
+        }
+        return copy;
+    }
+
+    /**
+     * Writes sorted[lo, hi) in the order that builds a perfectly balanced tree
+     *
+     * @param sorted the sorted values
+     * @param lo the first index
+     * @param hi one past the last index
+     * @param out the output
+     * @param at the next output index
+     * @return the next output index after this range
+     */
+    private static int medianFirst(Integer[] sorted, int lo, int hi, Integer[] out, int at) {
+        if (lo >= hi)
+            return at;
+        int mid = (lo + hi) >>> 1;
+        out[at++] = sorted[mid];
+        at = medianFirst(sorted, lo, mid, out, at);
+        return medianFirst(sorted, mid + 1, hi, out, at);
+    }
+
+    /**
+     * Next value to look up
+     *
+     * @return the value
+     */
+    private Integer next() {
+        if (++next == size)
+            next = 0;
+        return lookups[next];
+    }
+
+    @Benchmark
+    public boolean containsHit() {
+        return tree.contains(next());
+    }
+
+    @Benchmark
+    public boolean containsMiss() {
+        return tree.contains(next() + 1);
+    }
+
+    @Benchmark
+    public boolean removeInsert() {//moves the value to a leaf, so the shape drifts slowly
+        Integer v = next();
+        return tree.remove(v) & tree.insert(v);
+    }
+
+    @Benchmark
+    public SimpleBST<Integer> build() {
+        SimpleBST<Integer> t = new SimpleBST<>();
+        for (Integer v : order)
+            t.insert(v);
+        return t;
+    }
+
+    @Benchmark
+    public int buildAndRemove() {//remove in insertion order, as a table drains a chain
+        SimpleBST<Integer> t = new SimpleBST<>();
+        for (Integer v : order)
+            t.insert(v);
+        for (Integer v : order)
+            t.remove(v);
+        return t.size();
+    }
+
+    @Benchmark
+    public Object[] toArray() {
+        return tree.toArray();
+    }
+
+    @Benchmark
+    public int heightAndLeaves() {
+        return tree.height() + tree.numLeaves();
+    }
+
+    @Benchmark
+    public int height() {
+        return tree.height();
+    }
+
+    @Benchmark
+    public boolean removeInsertRecursive() {
+        Integer v = next();
+        return recursive.remove(v) & recursive.insert(v);
+    }
+
+    @Benchmark
+    public RecursiveBST<Integer> buildRecursive() {
+        RecursiveBST<Integer> t = new RecursiveBST<>();
+        for (Integer v : order)
+            t.insert(v);
+        return t;
+    }
+
+    @Benchmark
+    public int buildAndRemoveRecursive() {
+        RecursiveBST<Integer> t = new RecursiveBST<>();
+        for (Integer v : order)
+            t.insert(v);
+        for (Integer v : order)
+            t.remove(v);
+        return t.size;
+    }
+
+    @Benchmark
+    public Object[] toArrayRecursive() {
+        return recursive.toArray();
+    }
+
+    @Benchmark
+    public int heightRecursive() {
+        return recursive.height();
+    }
+
+    @Benchmark
+    public boolean containsHitBalancedBST() {
+        return avl.contains(next());
+    }
+
+    @Benchmark
+    public boolean containsHitTreeSet() {
+        return treeSet.contains(next());
+    }
+
+    @Benchmark
+    public TreeSet<Integer> buildTreeSet() {
+        TreeSet<Integer> t = new TreeSet<>();
+        for (Integer v : order)
+            t.add(v);
+        return t;
+    }
+
+}
@@ -0,0 +1,134 @@
+package forestchaining;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH time of one replay of a Workload stream against every engine:
+ * the three chain kinds of HashTable, a power-of-two HashTable, a Set
+ * and an OpenAddressingTable
+ * The stream is generated once per trial; each invocation starts from a
+ * fresh, prefilled engine (untimed), so every invocation replays exactly
+ * the same operations. Divide by the operation count for the time per
+ * operation. The colliding pool is capped at 2000 keys and runs a tenth
+ * of the operations, to keep the degenerate SimpleBST chain bearable
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkloadBench {
+
+
+    @Param({"20000"})
+    int keys;
+
+    @Param({"1000000"})
+    int operations;
+
+    @Param({"spread", "clustered", "colliding"})
+    String pool;
+
+    @Param({"UNIFORM", "ZIPFIAN", "SEQUENTIAL"})
+    String access;
+
+    @Param({"simple", "balanced", "adaptive", "pow2", "set", "open"})
+    String engine;
+
+    private Object[] pooled;//the workload's keys
+    private int[] ops;//key index * 4 + operation code
+    private Workload<?> workload;
+    private Predicate<Object> add, contains, remove;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Workload.Access pattern = Workload.Access.valueOf(access);
+        int n = keys;
+        int count = operations;
+        if (pool.equals("spread"))
+            workload = new Workload<>(Workload.spreadKeys(n, 1), pattern, 2);
+        else if (pool.equals("clustered"))
+            workload = new Workload<>(Workload.clusteredKeys(n, 64), pattern, 2);
+        else {
+            n = Math.min(n, 2000);
+            count = operations / 10;
+            workload = new Workload<>(Workload.collidingKeys(n), pattern, 2);
+        }
+        workload.setPrefill(n / 2);
+        pooled = workload.getKeys();
+        ops = workload.generate(count);
+    }
+
+    @Setup(Level.Invocation)
+    public void prefill() {
+        fill(workload);
+    }
+
+    /**
+     * Creates a fresh engine, prefills it and binds its operations
+     *
+     * @param <T> the key type
+     * @param w the workload
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Comparable<T>> void fill(Workload<T> w) {
+        if (engine.equals("set")) {
+            Set<T> set = new Set<>();
+            w.replay(set, 0);//prefill only
+            add = v -> set.add((T) v);
+            contains = v -> set.contains((T) v);
+            remove = v -> set.remove((T) v);
+            return;
+        }
+
+        SetStorage<T> storage;
+        if (engine.equals("open"))
+            storage = new OpenAddressingTable<>(0);
+        else {
+            HashTable<T> table = new HashTable<>(5, engine.equals("balanced"), engine.equals("adaptive"));
+            table.setPowerOfTwoIndexing(engine.equals("pow2"));
+            storage = table;
+        }
+        w.replay(storage, 0);//prefill only
+        add = v -> storage.add((T) v);
+        contains = v -> storage.contains((T) v);
+        remove = v -> storage.remove((T) v);
+    }
+
+    @Benchmark
+    public int replay() {
+        int hits = 0;//added, found or removed
+        for (int i = 0; i < ops.length; i++) {
+            Object key = pooled[ops[i] >>> 2];
+            switch (ops[i] & 3) {
+                case Workload.ADD:
+                    if (add.test(key))
+                        hits++;
+                    break;
+                case Workload.CONTAINS:
+                    if (contains.test(key))
+                        hits++;
+                    break;
+                default:
+                    if (remove.test(key))
+                        hits++;
+            }
+        }
+        return hits;
+    }
+
+}
@@ -0,0 +1,530 @@
+package forestchaining;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+/**
+ * A chain that changes representation as it grows:
+ * a single inline value, then a small sorted array scanned linearly,
+ * then a tree once the array would go past ARRAY_MAX values.
+ * It shrinks back through the same stages on remove.
+ *
+ * @param <T> the generic type
+ */
+class AdaptiveChain<T extends Comparable<T>> implements Chain<T> {
+
+
+    // biggest array before switching to a tree
+    static final int ARRAY_MAX = 8;
+
+    // a tree that drops to this size goes back to an array;
+    // kept below ARRAY_MAX so add/remove at the boundary does not thrash
+    static final int TREE_MIN = ARRAY_MAX / 2;
+
+    private final boolean balanced;//tree stage uses BalancedBST
+
+    private int size = 0;
+    private T inline;//stage 1: the only value
+    private Object[] values;//stage 2: sorted values, ascending
+    private SimpleBST<T> tree;//stage 3
+
+    /**
+     * Instantiates a new empty chain
+     *
+     * @param balanced true for a BalancedBST tree stage
+     */
+    public AdaptiveChain(boolean balanced) {
+        this.balanced = balanced;
+    }
+
+    /**
+     * Total elements in the chain
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if value is present in the chain
+     *
+     * @param value is the value
+     * @return true if value is in chain, false if not or if value is null
+     */
+    // O(1) inline, O(ARRAY_MAX) array, O(H) tree
+    @SuppressWarnings("unchecked")
+    public boolean contains(T value) {
+        if (value == null || size == 0)
+            return false;
+
+        if (tree != null)
+            return tree.contains(value);
+
+        if (values == null)
+            return inline.compareTo(value) == 0;
+
+        for (int i = 0; i < size; i++) {
+            int diff = ((T) values[i]).compareTo(value);
+            if (diff == 0)
+                return true;
+            if (diff > 0)
+                return false;//sorted, passed it
+        }
+        return false;
+    }
+
+    /**
+     * Looks value up like contains, counting the compareTo calls it takes
+     *
+     * @param value is the value
+     * @return the number of compareTo calls if value is in chain,
+     * or its bitwise complement if it is not
+     */
+    @SuppressWarnings("unchecked")
+    public int probe(T value) {
+        if (value == null || size == 0)
+            return ~0;
+
+        if (tree != null)
+            return tree.probe(value);
+
+        if (values == null)
+            return inline.compareTo(value) == 0 ? 1 : ~1;
+
+        for (int i = 0; i < size; i++) {
+            int diff = ((T) values[i]).compareTo(value);
+            if (diff == 0)
+                return i + 1;
+            if (diff > 0)
+                return ~(i + 1);//sorted, passed it
+        }
+        return ~size;
+    }
+
+    /**
+     * Inserts value into the chain, moving to the next stage when full
+     * No duplicates allowed; no null value allowed
+     *
+     * @param value is the value
+     * @return true, for a successful insertion
+     */
+    @SuppressWarnings("unchecked")
+    public boolean insert(T value) {
+        if (value == null)
+            return false;
+
+        if (tree != null) {
+            if (!tree.insert(value))
+                return false;
+            size++;
+            return true;
+        }
+
+        if (size == 0) {
+            inline = value;
+            size = 1;
+            return true;
+        }
+
+        if (values == null) {//inline -> array
+            int diff = inline.compareTo(value);
+            if (diff == 0)
+                return false;
+            values = new Object[ARRAY_MAX];
+            values[diff < 0 ? 0 : 1] = inline;
+            values[diff < 0 ? 1 : 0] = value;
+            inline = null;
+            size = 2;
+            return true;
+        }
+
+        int i = 0;
+        while (i < size) {//find the insertion point
+            int diff = ((T) values[i]).compareTo(value);
+            if (diff == 0)
+                return false;
+            if (diff > 0)
+                break;
+            i++;
+        }
+
+        if (size == ARRAY_MAX) {//array -> tree
+            tree = balanced ? new BalancedBST<>() : new SimpleBST<>();
+            insertMiddleFirst(0, size - 1);
+            tree.insert(value);
+            values = null;
+            size++;
+            return true;
+        }
+
+        System.arraycopy(values, i, values, i + 1, size - i);
+        values[i] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes value from the chain, moving to the previous stage when small
+     *
+     * @param value is the value to remove
+     * @return true for a successful removal
+     */
+    @SuppressWarnings("unchecked")
+    public boolean remove(T value) {
+        if (value == null || size == 0)
+            return false;
+
+        if (tree != null) {
+            if (!tree.remove(value))
+                return false;
+            size--;
+            if (size <= TREE_MIN) {//tree -> array
+                values = tree.toArray();
+                Arrays.sort(values);
+                values = Arrays.copyOf(values, ARRAY_MAX);
+                tree = null;
+            }
+            return true;
+        }
+
+        if (values == null) {
+            if (inline.compareTo(value) != 0)
+                return false;
+            inline = null;
+            size = 0;
+            return true;
+        }
+
+        for (int i = 0; i < size; i++) {
+            int diff = ((T) values[i]).compareTo(value);
+            if (diff > 0)
+                return false;
+            if (diff == 0) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                values[--size] = null;
+                if (size == 1) {//array -> inline
+                    inline = (T) values[0];
+                    values = null;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the height of the chain
+     * The array is scanned linearly, so it reports the height of a list
+     * Returns -1 for empty chains
+     *
+     * @return the height
+     */
+    public int height() {
+        return tree != null ? tree.height() : size - 1;
+    }
+
+    /**
+     * Returns the number of leaf nodes in the chain
+     * An inline value or an array counts as one leaf
+     *
+     * @return the number of leaves
+     */
+    public int numLeaves() {
+        if (tree != null)
+            return tree.numLeaves();
+        return size == 0 ? 0 : 1;
+    }
+
+    /**
+     * Return an array of all values:
+     * ascending for inline/array, pre-order for the tree
+     *
+     * @return the object[]
+     */
+    public Object[] toArray() {
+        if (tree != null)
+            return tree.toArray();
+        if (values == null)
+            return size == 0 ? new Object[0] : new Object[] {inline};
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Applies action to the values, in toArray order, until it returns false
+     *
+     * @param action the action
+     * @return true if every value was visited, false if the action stopped early
+     */
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile(Predicate<? super T> action) {
+        if (tree != null)
+            return tree.forEachWhile(action);
+        if (values == null)
+            return size == 0 || action.test(inline);
+        for (int i = 0; i < size; i++) {
+            if (!action.test((T) values[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Iterates the values in toArray order, without copying them
+     *
+     * @return the iterator
+     */
+    @SuppressWarnings("unchecked")
+    public Iterator<T> iterator() {
+        if (tree != null)
+            return tree.iterator();
+        if (values == null)
+            return size == 0 ? Collections.emptyIterator() : Collections.singleton(inline).iterator();
+        return (Iterator<T>) (Iterator<?>) Arrays.asList(values).subList(0, size).iterator();
+    }
+
+    /**
+     * Iterates the values in order; the inline and array stages
+     * already are, so only the tree stage walks differently
+     *
+     * @return the iterator
+     */
+    public Iterator<T> sortedIterator() {
+        return tree != null ? tree.sortedIterator() : iterator();
+    }
+
+    /**
+     * Returns the biggest value not bigger than value
+     *
+     * @param value the value
+     * @return the floor, null if there is none
+     */
+    // O(1) inline, O(ARRAY_MAX) array, O(H) tree
+    @SuppressWarnings("unchecked")
+    public T floor(T value) {
+        if (value == null || size == 0)
+            return null;
+        if (tree != null)
+            return tree.floor(value);
+        if (values == null)
+            return inline.compareTo(value) <= 0 ? inline : null;
+
+        T best = null;
+        for (int i = 0; i < size && ((T) values[i]).compareTo(value) <= 0; i++)
+            best = (T) values[i];//sorted, the last one not past value
+        return best;
+    }
+
+    /**
+     * Returns the smallest value not smaller than value
+     *
+     * @param value the value
+     * @return the ceiling, null if there is none
+     */
+    // O(1) inline, O(ARRAY_MAX) array, O(H) tree
+    @SuppressWarnings("unchecked")
+    public T ceiling(T value) {
+        if (value == null || size == 0)
+            return null;
+        if (tree != null)
+            return tree.ceiling(value);
+        if (values == null)
+            return inline.compareTo(value) >= 0 ? inline : null;
+
+        for (int i = 0; i < size; i++) {
+            if (((T) values[i]).compareTo(value) >= 0)
+                return (T) values[i];//sorted, the first one not below value
+        }
+        return null;
+    }
+
+    /**
+     * Returns the smallest value
+     *
+     * @return the first value, null if empty
+     */
+    @SuppressWarnings("unchecked")
+    public T first() {
+        if (tree != null)
+            return tree.first();
+        if (values == null)
+            return size == 0 ? null : inline;
+        return (T) values[0];
+    }
+
+    /**
+     * Returns the biggest value
+     *
+     * @return the last value, null if empty
+     */
+    @SuppressWarnings("unchecked")
+    public T last() {
+        if (tree != null)
+            return tree.last();
+        if (values == null)
+            return size == 0 ? null : inline;
+        return (T) values[size - 1];
+    }
+
+    /**
+     * Applies action, in order, to the values in [lo, hi) until it returns false
+     *
+     * @param lo the lowest value, inclusive
+     * @param hi the highest value, exclusive
+     * @param action the action
+     * @return true if every value in range was visited, false if the action stopped early
+     */
+    @SuppressWarnings("unchecked")
+    public boolean forEachInRange(T lo, T hi, Predicate<? super T> action) {
+        if (lo == null || hi == null)
+            return true;
+        if (tree != null)
+            return tree.forEachInRange(lo, hi, action);
+        if (values == null)
+            return size == 0 || inline.compareTo(lo) < 0 || inline.compareTo(hi) >= 0 || action.test(inline);
+
+        for (int i = 0; i < size; i++) {
+            T value = (T) values[i];
+            if (value.compareTo(hi) >= 0)
+                break;//sorted, the rest is past the range
+            if (value.compareTo(lo) >= 0 && !action.test(value))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Fills the empty chain with block[from..to), laid out by toArray:
+     * a tree past ARRAY_MAX, and also a tree that had shrunk to between
+     * TREE_MIN and ARRAY_MAX values, since its pre-order is not ascending;
+     * an inline value or an array otherwise
+     *
+     * @param block the values
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     */
+    @SuppressWarnings("unchecked")
+    public void load(Object[] block, int from, int to) {
+        size = to - from;
+        if (size > ARRAY_MAX || (size > TREE_MIN && !ascending(block, from, to))) {
+            tree = balanced ? new BalancedBST<>() : new SimpleBST<>();
+            tree.load(block, from, to);
+        } else if (size == 1)
+            inline = (T) block[from];
+        else if (size > 1) {
+            values = new Object[ARRAY_MAX];
+            System.arraycopy(block, from, values, 0, size);
+        }
+    }
+
+    /**
+     * Checks whether block[from..to) is in ascending order
+     *
+     * @param block the values
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     * @return true, if ascending
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Comparable<T>> boolean ascending(Object[] block, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (((T) block[i - 1]).compareTo((T) block[i]) > 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * In-order string representation with one space after each value
+     */
+    public String toString() {
+        if (tree != null)
+            return tree.toString();
+
+        StringBuilder s = new StringBuilder();
+        if (values == null) {
+            if (size == 1)
+                s.append(inline);
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (i > 0)
+                    s.append(' ');
+                s.append(values[i]);
+            }
+        }
+        return s.append(' ').toString();
+    }
+
+    /**
+     * Inserts values[lo..hi] into the tree middle first,
+     * so a sorted array turns into a balanced tree
+     *
+     * @param lo the first index
+     * @param hi the last index
+     */
+    @SuppressWarnings("unchecked")
+    private void insertMiddleFirst(int lo, int hi) {
+        if (lo > hi)
+            return;
+        int mid = (lo + hi) >>> 1;
+        tree.insert((T) values[mid]);
+        insertMiddleFirst(lo, mid - 1);
+        insertMiddleFirst(mid + 1, hi);
+    }
+
+
+    //------------------------------
+    // Main Method For Your Testing
+    //------------------------------
+    public static void main(String args[]){
+        AdaptiveChain<Integer> c = new AdaptiveChain<>(false);
+
+        //empty and inline
+        if (c.size() == 0 && c.height() == -1 && c.numLeaves() == 0 && !c.contains(1)
+                && c.insert(5) && !c.insert(5) && !c.insert(null) && c.size() == 1
+                && c.contains(5) && c.height() == 0 && c.numLeaves() == 1
+                && c.values == null && c.tree == null && c.toString().equals("5 ")){
+            System.out.println("Yay 1");
+        }
+
+        //small array, kept sorted
+        if (c.insert(3) && c.insert(9) && c.insert(7) && !c.insert(7) && c.size() == 4
+                && c.values != null && c.tree == null && c.toString().equals("3 5 7 9 ")
+                && c.contains(9) && !c.contains(4) && c.height() == 3 && c.numLeaves() == 1
+                && c.toArray().length == 4 && c.toArray()[0].equals(3)){
+            System.out.println("Yay 2");
+        }
+
+        //past ARRAY_MAX it becomes a tree
+        for (int i = 10; i < 15; i++)
+            c.insert(i);
+        if (c.size() == 9 && c.tree != null && c.values == null && c.height() == 4
+                && c.toString().equals("3 5 7 9 10 11 12 13 14 ")
+                && c.contains(14) && c.contains(3) && !c.contains(8)){
+            System.out.println("Yay 3");
+        }
+
+        //and shrinks back on remove
+        boolean ok = c.remove(14) && c.remove(13) && c.remove(12) && c.remove(11) && !c.remove(11)
+                && c.tree != null && c.remove(10) && c.tree == null && c.values != null
+                && c.toString().equals("3 5 7 9 ")
+                && c.remove(3) && c.remove(9) && c.remove(7) && c.values == null
+                && c.contains(5) && c.size() == 1 && c.remove(5) && c.size() == 0
+                && !c.contains(5) && c.toString().trim().equals("");
+        if (ok){
+            System.out.println("Yay 4");
+        }
+
+        //balanced tree stage
+        c = new AdaptiveChain<>(true);
+        for (int i = 0; i < 100; i++)
+            c.insert(i);
+        if (c.size() == 100 && c.tree instanceof BalancedBST && c.height() == 6){
+            System.out.println("Yay 5");
+        }
+
+    }
+
+}
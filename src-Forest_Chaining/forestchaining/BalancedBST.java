@@ -0,0 +1,288 @@
+package forestchaining;
+
+/**
+ * The Class BalancedBST for a self-balancing (AVL) binary search tree.
+ * Keeps the SimpleBST contract but rebalances on every insert and remove,
+ * so the tree height stays O(log N) even for sorted or adversarial input.
+ *
+ * @param <T> the generic type
+ */
+class BalancedBST<T extends Comparable<T>> extends SimpleBST<T> {
+
+
+    /**
+     * AVL tree node class; every Node keeps its height, an AVLNode
+     * only marks a node of a tree that is kept balanced
+     *
+     * @param <T> is the generic type
+     */
+    static class AVLNode<T> extends Node<T> {
+
+        /**
+         * Instantiates a new leaf node
+         *
+         * @param data is the data
+         */
+        AVLNode(T data) {super(data);}
+
+        /**
+         * Instantiates a new node over two subtrees, setting its height and leaves
+         *
+         * @param data the data
+         * @param l the left subtree
+         * @param r the right subtree
+         */
+        AVLNode(T data, AVLNode<T> l, AVLNode<T> r) {super(data, l, r);}
+    }
+
+
+    /**
+     * Inserts value into tree and rebalances
+     * No duplicates allowed; no null value allowed
+     *
+     * @param value is the value
+     * @return true, for a successful insertion
+     */
+    // O(log N): N is the tree size
+    @Override
+    public boolean insert(T value) {
+        if (value == null)
+            return false;
+
+        int prevSize = size;//record starting size
+
+        root = insert(value, (AVLNode<T>) root);//helper method called
+
+        return prevSize != size;//return true if size changed
+    }
+
+    /**
+     * Inserts helper method
+     *
+     * @param x is the value to insert
+     * @param t is the the current node
+     * @return the new (rebalanced) root
+     */
+    private AVLNode<T> insert(T x, AVLNode<T> t) {
+        if (t == null) {
+            size++;
+            return new AVLNode<>(x);//create new node
+        }
+
+        int diff = x.compareTo(t.data);
+        if (diff < 0)
+            t.left = insert(x, (AVLNode<T>) t.left);//recursive call to traverse left
+        else if (diff > 0)
+            t.right = insert(x, (AVLNode<T>) t.right);//recursive call to traverse right
+        else
+            return t;//duplicate, nothing changed
+
+        return balance(t);
+    }
+
+    /**
+     * Fills the empty tree with values[from..to) in pre-order,
+     * rebuilding the balanced tree toArray() came from
+     *
+     * @param values the values
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     */
+    // O(K): K as to - from
+    @Override
+    public void load(Object[] values, int from, int to) {
+        root = fromPreOrder(values, from, to, true);
+        size = to - from;
+    }
+
+    /**
+     * Removes value from tree and rebalances
+     * Returns false if value cannot be removed
+     * or values not in tree or null values
+     *
+     * @param value is the value to remove
+     * @return true for a successful removal
+     */
+    // O(log N): N is the tree size
+    @Override
+    public boolean remove(T value) {
+        if (value == null)
+            return false;
+
+        int prevSize = size;
+        root = remove(value, (AVLNode<T>) root);
+
+        return prevSize != size;//return true if size changed
+    }
+
+    /**
+     * Removes helper method
+     *
+     * @param x is the value to remove
+     * @param t is the the current node
+     * @return the new (rebalanced) root
+     */
+    private AVLNode<T> remove(T x, AVLNode<T> t) {
+        if (t == null)
+            return null;
+
+        int diff = x.compareTo(t.data);
+        if (diff < 0)
+            t.left = remove(x, (AVLNode<T>) t.left);//recursive call to traverse left
+        else if (diff > 0)
+            t.right = remove(x, (AVLNode<T>) t.right);//recursive call to traverse right
+        else if (t.left != null && t.right != null) { // Two children
+            size--;//update size
+            t.data = findMax(t.left);//same replacement as SimpleBST
+            t.left = removeMax((AVLNode<T>) t.left);
+        } else {
+            size--;//update size
+            return (AVLNode<T>) ((t.left != null) ? t.left : t.right);//children are already balanced
+        }
+
+        return balance(t);
+    }
+
+    /**
+     * Removes the biggest value in the subtree rooted at t and rebalances
+     *
+     * @param t the subtree root
+     * @return the subtree root after removal
+     */
+    private AVLNode<T> removeMax(AVLNode<T> t) {
+        if (t.right == null)
+            return (AVLNode<T>) t.left;
+
+        t.right = removeMax((AVLNode<T>) t.right);
+        return balance(t);
+    }
+
+    /**
+     * Returns the height of the tree
+     * Returns -1 for null trees
+     *
+     * @return the height
+     */
+    // O(1): heights are kept in the nodes
+    @Override
+    public int height() {
+        return height(root);
+    }
+
+    /**
+     * Restores the AVL property at t, assuming both subtrees are balanced
+     *
+     * @param t the node
+     * @return the new subtree root
+     */
+    private static <T> AVLNode<T> balance(AVLNode<T> t) {
+        int skew = height(t.left) - height(t.right);
+
+        if (skew > 1) {//left heavy
+            if (height(t.left.left) < height(t.left.right))
+                t.left = rotateLeft((AVLNode<T>) t.left);//left-right case
+            return rotateRight(t);
+        }
+        if (skew < -1) {//right heavy
+            if (height(t.right.right) < height(t.right.left))
+                t.right = rotateRight((AVLNode<T>) t.right);//right-left case
+            return rotateLeft(t);
+        }
+
+        t.update();
+        return t;
+    }
+
+    /**
+     * Single right rotation around t
+     *
+     * @param t the node
+     * @return the new subtree root
+     */
+    private static <T> AVLNode<T> rotateRight(AVLNode<T> t) {
+        AVLNode<T> l = (AVLNode<T>) t.left;
+        t.left = l.right;
+        l.right = t;
+        t.update();
+        l.update();
+        return l;
+    }
+
+    /**
+     * Single left rotation around t
+     *
+     * @param t the node
+     * @return the new subtree root
+     */
+    private static <T> AVLNode<T> rotateLeft(AVLNode<T> t) {
+        AVLNode<T> r = (AVLNode<T>) t.right;
+        t.right = r.left;
+        r.left = t;
+        t.update();
+        r.update();
+        return r;
+    }
+
+
+    //------------------------------
+    // Main Method For Your Testing
+    //------------------------------
+    public static void main(String args[]){
+        BalancedBST<Integer> t = new BalancedBST<>();
+
+        // the sequence that turns a SimpleBST into a linked list
+        if (t.insert(1) && t.insert(2) && t.insert(3) && !t.insert(3) && !t.insert(null)
+                && t.size() == 3 && t.height() == 1 && t.root.data == 2
+                && t.toString().equals("1 2 3 ") && t.numLeaves() == 2){
+            System.out.println("Yay 1");
+        }
+
+        // sorted keys stay logarithmic
+        t = new BalancedBST<>();
+        for (int i = 0; i < 1000; i++)
+            t.insert(i);
+        if (t.size() == 1000 && t.height() == 9 && t.contains(0) && t.contains(999) && !t.contains(1000)){
+            System.out.println("Yay 2");
+        }
+
+        // pre-order toArray still has every value once, root first
+        Object[] array = t.toArray();
+        if (array.length == 1000 && array[0].equals(t.root.data)){
+            System.out.println("Yay 3");
+        }
+
+        // removals (leaf, one child, two children) rebalance too
+        boolean ok = true;
+        for (int i = 0; i < 1000; i += 2)
+            ok = ok && t.remove(i);
+        for (int i = 0; i < 1000; i++)
+            ok = ok && (t.contains(i) == (i % 2 == 1));
+        if (ok && !t.remove(0) && !t.remove(null) && t.size() == 500 && t.height() <= 8
+                && isBalanced(t.root)){
+            System.out.println("Yay 4");
+        }
+
+        // removing everything leaves an empty tree
+        for (int i = 1; i < 1000; i += 2)
+            t.remove(i);
+        if (t.size() == 0 && t.root == null && t.height() == -1 && t.toArray().length == 0){
+            System.out.println("Yay 5");
+        }
+
+    }
+
+    /**
+     * Checks the AVL property and stored heights, for testing only
+     *
+     * @param t the subtree root
+     * @return true if every node is balanced
+     */
+    private static boolean isBalanced(Node<?> t) {
+        if (t == null)
+            return true;
+        int l = height(t.left), r = height(t.right);
+        return Math.abs(l - r) <= 1 && height(t) == 1 + Math.max(l, r)
+                && isBalanced(t.left) && isBalanced(t.right);
+    }
+
+}
@@ -0,0 +1,125 @@
+package forestchaining;
+
+/**
+ * A split-block Bloom filter over hash codes, the front-end of a HashTable
+ * Each value owns one block of eight longs, 512 bits or one cache line,
+ * and sets one bit in each of them; a lookup reads that block only, so
+ * a definite miss costs one or two memory accesses and no compareTo
+ * Values can't be taken out: removes only count how stale it gets
+ */
+class BloomFilter {
+
+
+    static final int BITS_PER_VALUE = 10;//about 1% false positives when full
+
+    private static final int BLOCK = 8;//longs per block
+    private static final int BLOCK_BITS = BLOCK * Long.SIZE;
+
+    // odd multipliers picking the bit of each long (from Impala's filter)
+    private static final int[] SALT = {0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+    private final long[] bits;
+    private final int blocks;
+    private int count;//values put
+    private int removed;//values removed from the table since
+
+    /**
+     * Instantiates an empty filter sized for expected values
+     *
+     * @param expected the number of values it should hold
+     */
+    BloomFilter(int expected) {
+        long wanted = ((long) Math.max(expected, 1) * BITS_PER_VALUE + BLOCK_BITS - 1) / BLOCK_BITS;
+        blocks = (int) Math.min(wanted, Integer.MAX_VALUE / BLOCK);
+        bits = new long[blocks * BLOCK];
+    }
+
+    /**
+     * Spreads a hash code over 64 bits (MurmurHash3 fmix64): the high
+     * half picks the block, the low half the bits
+     *
+     * @param h the hash code
+     * @return the mixed hash
+     */
+    private static long mix(int h) {
+        long x = h;
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    /**
+     * First long of the block of a mixed hash
+     *
+     * @param hash the mixed hash
+     * @return the index into bits
+     */
+    private int block(long hash) {
+        return (int) (((hash >>> 32) * blocks) >>> 32) * BLOCK;//multiply-shift instead of a modulo
+    }
+
+    /**
+     * Adds value
+     *
+     * @param value the value
+     */
+    void put(Object value) {
+        long hash = mix(value.hashCode());
+        int base = block(hash);
+        int low = (int) hash;
+        for (int i = 0; i < BLOCK; i++)
+            bits[base + i] |= 1L << ((low * SALT[i]) >>> 26);
+        count++;
+    }
+
+    /**
+     * Checks if value may have been put
+     *
+     * @param value the value
+     * @return false if it surely was not
+     */
+    boolean mightContain(Object value) {
+        long hash = mix(value.hashCode());
+        int base = block(hash);
+        int low = (int) hash;
+        for (int i = 0; i < BLOCK; i++) {
+            if ((bits[base + i] & (1L << ((low * SALT[i]) >>> 26))) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Counts a value removed from the table; the filter keeps answering
+     * maybe for it
+     *
+     * @return true once more than half of the values put are gone
+     */
+    boolean remove() {
+        return ++removed * 2 > count;
+    }
+
+    /**
+     * Chance that mightContain is true for a value never put, with the
+     * bits as they are: per block the product of the eight fill ratios,
+     * averaged over the blocks
+     *
+     * @return the rate, 0 to 1
+     */
+    // O(B): B as the number of blocks
+    double falsePositiveRate() {
+        double sum = 0;
+        for (int base = 0; base < bits.length; base += BLOCK) {
+            double p = 1;
+            for (int i = 0; i < BLOCK && p > 0; i++)
+                p *= Long.bitCount(bits[base + i]) / (double) Long.SIZE;
+            sum += p;
+        }
+        return sum / blocks;
+    }
+
+}
@@ -0,0 +1,146 @@
+package forestchaining;
+
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+/**
+ * A chain of values sharing one bucket of a HashTable.
+ * SimpleBST is the classic chain; other chains only have to keep
+ * the same tree-shaped contract for sizes, heights and leaves.
+ * Iteration follows toArray order without copying the chain.
+ *
+ * @param <T> the generic type
+ */
+interface Chain<T extends Comparable<T>> extends Iterable<T> {
+
+    /**
+     * Total elements in the chain
+     *
+     * @return the size
+     */
+    int size();
+
+    /**
+     * Checks if value is present in the chain
+     *
+     * @param value is the value
+     * @return true if value is in chain, false if not or if value is null
+     */
+    boolean contains(T value);
+
+    /**
+     * Looks value up like contains, counting the compareTo calls it takes
+     *
+     * @param value is the value
+     * @return the number of compareTo calls if value is in the chain,
+     * or its bitwise complement (a negative number) if it is not
+     */
+    int probe(T value);
+
+    /**
+     * Inserts value into the chain
+     * No duplicates allowed; no null value allowed
+     *
+     * @param value is the value
+     * @return true, for a successful insertion
+     */
+    boolean insert(T value);
+
+    /**
+     * Removes value from the chain
+     *
+     * @param value is the value to remove
+     * @return true for a successful removal
+     */
+    boolean remove(T value);
+
+    /**
+     * Returns the height of the chain, -1 when empty
+     *
+     * @return the height
+     */
+    int height();
+
+    /**
+     * Returns the number of leaf nodes in the chain, zero when empty
+     *
+     * @return the number of leaves
+     */
+    int numLeaves();
+
+    /**
+     * Return an array of all values in rehash order
+     * (pre-order for trees)
+     *
+     * @return the object[]
+     */
+    Object[] toArray();
+
+    /**
+     * Applies action to the values, in toArray order, until it returns false
+     *
+     * @param action the action
+     * @return true if every value was visited, false if the action stopped early
+     */
+    boolean forEachWhile(Predicate<? super T> action);
+
+    /**
+     * Iterates the values in ascending compareTo order, without copying them
+     *
+     * @return the iterator
+     */
+    Iterator<T> sortedIterator();
+
+    /**
+     * Returns the biggest value not bigger than value
+     *
+     * @param value the value
+     * @return the floor, null if there is none or value is null
+     */
+    T floor(T value);
+
+    /**
+     * Returns the smallest value not smaller than value
+     *
+     * @param value the value
+     * @return the ceiling, null if there is none or value is null
+     */
+    T ceiling(T value);
+
+    /**
+     * Returns the smallest value
+     *
+     * @return the first value, null if the chain is empty
+     */
+    T first();
+
+    /**
+     * Returns the biggest value
+     *
+     * @return the last value, null if the chain is empty
+     */
+    T last();
+
+    /**
+     * Applies action, in ascending order, to the values in [lo, hi)
+     * until it returns false, skipping the parts of the chain outside the range
+     *
+     * @param lo the lowest value, inclusive
+     * @param hi the highest value, exclusive
+     * @param action the action
+     * @return true if every value in range was visited, false if the action stopped early
+     */
+    boolean forEachInRange(T lo, T hi, Predicate<? super T> action);
+
+    /**
+     * Fills an empty chain with values[from..to), laid out in toArray order
+     * and free of duplicates, e.g. a block of a snapshot
+     * Trees come back with the shape they had when written
+     *
+     * @param values the values
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     */
+    void load(Object[] values, int from, int to);
+
+}
@@ -0,0 +1,693 @@
+package forestchaining;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * A thread-safe hash table with separate chaining
+ * Every chain is a binary search tree, guarded by one of a fixed set of
+ * stripe locks, so threads working on different stripes never wait on each other
+ * With lock-free reads, chains are PersistentBSTs and contains takes no lock
+ * Use it as the storage of a Set for a thread-safe set
+ * (single-value operations are atomic; the set algebra is not a snapshot)
+ *
+ * @param <T> the generic type
+ */
+class ConcurrentHashTable<T extends Comparable<T>> implements SetStorage<T> {
+
+
+    static private int minLength = 2;
+
+    static private final int defaultStripes = 64;
+
+    private final ReentrantLock[] locks;//value with spread hash h is guarded by locks[h & (locks.length - 1)]
+    private final LongAdder size = new LongAdder();//striped counter
+    private final boolean balanced;//chains are self-balancing trees
+    private final boolean lockFreeReads;//contains reads without locking
+
+    // Lengths are powers of two and at least locks.length, so a value keeps its stripe
+    // across rehashes. Only replaced while holding every lock; slots are read and
+    // written with volatile semantics so a lock-free reader sees whole chains.
+    private volatile AtomicReferenceArray<Chain<T>> storage;
+
+    /**
+     * Instantiates a new table with the default number of stripes
+     *
+     * @param length the length
+     */
+    public ConcurrentHashTable(int length) {
+        this(length, false, defaultStripes, false);
+    }
+
+    /**
+     * Instantiates a new table
+     *
+     * @param length the length, rounded up to a power of two of at least stripes
+     * @param balanced true for self-balancing chains
+     * @param stripes the number of locks, rounded up to a power of two
+     */
+    public ConcurrentHashTable(int length, boolean balanced, int stripes) {
+        this(length, balanced, stripes, false);
+    }
+
+    /**
+     * Instantiates a new table
+     * With lockFreeReads, writers copy the search path of a chain
+     * (PersistentBST) instead of changing it in place, so contains never
+     * takes a lock, even during a rehash
+     *
+     * @param length the length, rounded up to a power of two of at least stripes
+     * @param balanced true for self-balancing chains
+     * @param stripes the number of locks, rounded up to a power of two
+     * @param lockFreeReads true for lock-free contains
+     */
+    public ConcurrentHashTable(int length, boolean balanced, int stripes, boolean lockFreeReads) {
+        stripes = roundUp(Math.max(stripes, 1));
+        length = roundUp(Math.max(Math.max(length, minLength), stripes));
+
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++)
+            locks[i] = new ReentrantLock();
+        storage = new AtomicReferenceArray<>(length);
+        this.balanced = balanced;
+        this.lockFreeReads = lockFreeReads;
+    }
+
+    /**
+     * Smallest power of two that is at least n
+     *
+     * @param n the number, at most 2^30
+     * @return the power of two
+     */
+    private static int roundUp(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    /**
+     * Return the table length
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return storage.length();
+    }
+
+    /**
+     * Return the number of stripe locks
+     *
+     * @return the number of stripes
+     */
+    public int getStripes() {
+        return locks.length;
+    }
+
+    /**
+     * Return the number of values in hash table
+     *
+     * @return the size
+     */
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * Creates an empty chain of the configured kind
+     *
+     * @return the new chain
+     */
+    private Chain<T> newChain() {
+        if (lockFreeReads)
+            return new PersistentBST<>(balanced);
+        return balanced ? new BalancedBST<>() : new SimpleBST<>();
+    }
+
+    /**
+     * Adds value into hash table
+     * Takes the value's stripe lock; may then rehash to twice the length
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    public boolean add(T value) {
+        if (value == null)
+            return false;
+
+        int hash = HashTable.spread(value.hashCode());
+        ReentrantLock lock = locks[hash & (locks.length - 1)];
+        int length;
+        lock.lock();
+        try {
+            AtomicReferenceArray<Chain<T>> table = storage;//stable while we hold a stripe lock
+            int index = hash & (table.length() - 1);
+            Chain<T> chain = table.get(index);
+            if (chain == null) {
+                chain = newChain();
+                chain.insert(value);
+                table.set(index, chain);//publish the chain with its first value
+            } else if (!chain.insert(value))
+                return false;
+            size.increment();//under the lock, so the count is exact when every lock is held
+            length = table.length();
+        } finally {
+            lock.unlock();
+        }
+
+        if (size.sum() * 100 >= (long) length * 80)//80% reached
+            grow(length);
+        return true;
+    }
+
+    /**
+     * Checks whether value is in hash table
+     * Takes no lock with lock-free reads: the table, the slot and the chain
+     * root are volatile reads, and chain nodes are never changed once published
+     * A rehash builds a new table while the old one stays complete,
+     * so a lookup running across a resize still finds every value
+     *
+     * @param value the value
+     * @return true, if present
+     */
+    public boolean contains(T value) {
+        if (value == null)
+            return false;
+
+        int hash = HashTable.spread(value.hashCode());
+        if (lockFreeReads) {
+            AtomicReferenceArray<Chain<T>> table = storage;
+            Chain<T> chain = table.get(hash & (table.length() - 1));
+            return chain != null && chain.contains(value);
+        }
+
+        ReentrantLock lock = locks[hash & (locks.length - 1)];
+        lock.lock();
+        try {
+            AtomicReferenceArray<Chain<T>> table = storage;
+            Chain<T> chain = table.get(hash & (table.length() - 1));
+            return chain != null && chain.contains(value);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the value
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    public boolean remove(T value) {
+        if (value == null)
+            return false;
+
+        int hash = HashTable.spread(value.hashCode());
+        ReentrantLock lock = locks[hash & (locks.length - 1)];
+        lock.lock();
+        try {
+            AtomicReferenceArray<Chain<T>> table = storage;
+            Chain<T> chain = table.get(hash & (table.length() - 1));
+            if (chain == null || !chain.remove(value))
+                return false;
+            size.decrement();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Doubles the table, unless another thread already did
+     *
+     * @param seenLength the length that was found too small
+     */
+    private void grow(int seenLength) {
+        lockAll();
+        try {
+            if (storage.length() == seenLength && seenLength <= (1 << 29))
+                rehashLocked(seenLength * 2);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Rehash hash table to newLength, rounded up to a power of two
+     * and doubled until the load is below 80%
+     * Blocks every other operation while it runs
+     *
+     * @param newLength the new length
+     * @return true, if successful
+     */
+    public boolean rehash(int newLength) {
+        if (newLength < minLength || newLength > (1 << 30))
+            return false;
+
+        lockAll();
+        try {
+            return rehashLocked(newLength);
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Rehash helper, the caller holds every lock
+     *
+     * @param newLength the new length
+     * @return true, if successful
+     */
+    @SuppressWarnings("unchecked")
+    private boolean rehashLocked(int newLength) {
+        newLength = roundUp(Math.max(newLength, locks.length));
+        long count = size.sum();
+        while (count * 100 >= (long) newLength * 80) {//while load is >= .8
+            if (newLength > (1 << 29))
+                return false;
+            newLength *= 2;
+        }
+
+        // the old table is left as it is: lock-free readers may still be in it
+        AtomicReferenceArray<Chain<T>> table = storage;
+        Chain<T>[] newStorage = new Chain[newLength];
+        for (int i = 0; i < table.length(); i++) {
+            Chain<T> chain = table.get(i);
+            if (chain != null) {
+                Object[] elements = chain.toArray();
+                for (int j = 0; j < elements.length; j++) {
+                    T value = (T) elements[j];
+                    int index = HashTable.spread(value.hashCode()) & (newLength - 1);
+                    if (newStorage[index] == null)
+                        newStorage[index] = newChain();
+                    newStorage[index].insert(value);
+                }
+            }
+        }
+
+        storage = new AtomicReferenceArray<>(newStorage);//publish
+        return true;
+    }
+
+    /**
+     * Acquires every stripe lock, always in index order
+     */
+    private void lockAll() {
+        for (int i = 0; i < locks.length; i++)
+            locks[i].lock();
+    }
+
+    /**
+     * Releases every stripe lock
+     */
+    private void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--)
+            locks[i].unlock();
+    }
+
+    /**
+     * Returns an array of all values, a consistent snapshot
+     *
+     * @return the object[]
+     */
+    public Object[] toArray() {
+        lockAll();
+        try {
+            AtomicReferenceArray<Chain<T>> table = storage;
+            Object[] array = new Object[size.intValue()];
+            int index = 0;
+            for (int i = 0; i < table.length(); i++) {
+                Chain<T> chain = table.get(i);
+                if (chain != null) {
+                    Object[] elements = chain.toArray();
+                    System.arraycopy(elements, 0, array, index, elements.length);
+                    index += elements.length;
+                }
+            }
+            return array;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Applies action to the values until it returns false
+     * Weakly consistent: it sees every value present for the whole walk,
+     * and may or may not see values added or removed meanwhile
+     * With lock-free reads the chains are walked in place; otherwise each
+     * chain is copied under its stripe lock and the action runs unlocked,
+     * so an action that touches another table can't deadlock
+     *
+     * @param action the action
+     * @return true if every value was visited, false if the action stopped early
+     */
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile(Predicate<? super T> action) {
+        AtomicReferenceArray<Chain<T>> table = storage;
+        for (int i = 0; i < table.length(); i++) {
+            Chain<T> chain = table.get(i);
+            if (chain == null)
+                continue;
+
+            if (lockFreeReads) {
+                if (!chain.forEachWhile(action))
+                    return false;
+                continue;
+            }
+
+            Object[] elements = copyChain(i, chain);
+            for (int j = 0; j < elements.length; j++) {
+                if (!action.test((T) elements[j]))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies a chain of the current table while holding its stripe lock
+     *
+     * @param i the bucket index
+     * @param chain the chain in bucket i
+     * @return the values of the chain
+     */
+    private Object[] copyChain(int i, Chain<T> chain) {
+        ReentrantLock lock = locks[i & (locks.length - 1)];//bucket i belongs to this stripe
+        lock.lock();
+        try {
+            return chain.toArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Iterates the values, weakly consistent like forEachWhile:
+     * it never throws a ConcurrentModificationException, and each chain is
+     * read lock-free or copied under its stripe lock when it is reached
+     *
+     * @return the iterator
+     */
+    public Iterator<T> iterator() {
+        final AtomicReferenceArray<Chain<T>> table = storage;
+        return new Iterator<T>() {
+            private int next = 0;//next bucket to open
+            private Iterator<T> chain = Collections.emptyIterator();
+
+            @SuppressWarnings("unchecked")
+            public boolean hasNext() {
+                while (!chain.hasNext()) {
+                    if (next == table.length())
+                        return false;
+                    Chain<T> c = table.get(next);
+                    if (c != null)
+                        chain = lockFreeReads ? c.iterator()
+                                : (Iterator<T>) (Iterator<?>) Arrays.asList(copyChain(next, c)).iterator();
+                    next++;
+                }
+                return true;
+            }
+
+            public T next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return chain.next();
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator reporting CONCURRENT, DISTINCT and NONNULL
+     * The size is unknown, since other threads may change it
+     *
+     * @return the spliterator
+     */
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.CONCURRENT | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * Creates a new, empty table with the same chain kind and stripes,
+     * long enough that expectedSize values stay below 80% load
+     *
+     * @param expectedSize the expected number of values
+     * @return the empty table
+     */
+    public ConcurrentHashTable<T> newEmpty(int expectedSize) {
+        int length = (int) Math.min((long) expectedSize * 5 / 4 + 1, 1 << 30);
+        return new ConcurrentHashTable<>(length, balanced, locks.length, lockFreeReads);
+    }
+
+    /**
+     * Return a string representation of all values in hash table
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        Object[] array = toArray();
+        for (int i = 0; i < array.length; i++)
+            s.append(array[i]).append(' ');
+        return s.toString().trim();
+    }
+
+
+    //--------------------------------
+    // Main Method For Your Testing
+    //--------------------------------
+    public static void main(String[] args) throws InterruptedException {
+        ConcurrentHashTable<String> ht1 = new ConcurrentHashTable<>(10, false, 4);
+
+        //sizes are rounded to powers of two
+        if (ht1.getLength() == 16 && ht1.getStripes() == 4 && ht1.size() == 0 && ht1.toString().equals("")) {
+            System.out.println("Yay 1");
+        }
+
+        //single-threaded basics
+        if (ht1.add("a") && ht1.add("c") && ht1.add("computer") && !ht1.add("c") && !ht1.add(null)
+                && ht1.contains("computer") && !ht1.contains("cs") && ht1.remove("c") && !ht1.remove("c")
+                && ht1.size() == 2 && ht1.toArray().length == 2 && ht1.rehash(100) && ht1.getLength() == 128
+                && ht1.contains("a") && !ht1.rehash(1)) {
+            System.out.println("Yay 2");
+        }
+
+        //threads adding and removing their own ranges, with rehashes along the way
+        final ConcurrentHashTable<Integer> ht = new ConcurrentHashTable<>(2, true, 8);
+        final int threads = 4, perThread = 20000;
+        final boolean[] ok = new boolean[threads];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(new Runnable() {
+                public void run() {
+                    boolean good = true;
+                    for (int i = id; i < threads * perThread; i += threads)
+                        good = good && ht.add(i);
+                    for (int i = id; i < threads * perThread; i += 2 * threads)
+                        good = good && ht.remove(i) && !ht.contains(i);
+                    for (int i = id + threads; i < threads * perThread; i += 2 * threads)
+                        good = good && ht.contains(i);
+                    ok[id] = good;
+                }
+            });
+            workers[t].start();
+        }
+        for (int t = 0; t < threads; t++)
+            workers[t].join();
+
+        boolean all = ht.size() == threads * perThread / 2 && ht.toArray().length == ht.size()
+                && (long) ht.size() * 100 < (long) ht.getLength() * 80;
+        for (int t = 0; t < threads; t++)
+            all = all && ok[t];
+        if (all) {
+            System.out.println("Yay 3");
+        }
+
+        //stress: lock-free readers must never miss a value that is in the table,
+        //while writers resize it and remove nodes with two children next to it
+        final ConcurrentHashTable<String> lf = new ConcurrentHashTable<>(2, false, 8, true);
+        String[] colliding = {""};//"Aa" and "BB" share a hash code: one deep chain
+        for (int i = 0; i < 8; i++) {
+            String[] next = new String[colliding.length * 2];
+            for (int j = 0; j < colliding.length; j++) {
+                next[2 * j] = colliding[j] + "Aa";
+                next[2 * j + 1] = colliding[j] + "BB";
+            }
+            colliding = next;
+        }
+        final String[] chain = colliding;
+        for (int i = 0; i < chain.length; i++)
+            lf.add(chain[(i * 97) % chain.length]);//scrambled, so the chain is a bushy tree
+
+        final int fresh = 100000;
+        final int[] published = new int[1];
+        final boolean[] writing = {true};
+        final int[] misses = new int[1];
+        final int startLength = lf.getLength();
+
+        Thread churn = new Thread(new Runnable() {
+            public void run() {//odd strings go and come back, the even ones stay
+                for (int round = 0; round < 20; round++) {
+                    for (int i = 1; i < chain.length; i += 2)
+                        lf.remove(chain[i]);
+                    for (int i = 1; i < chain.length; i += 2)
+                        lf.add(chain[i]);
+                }
+            }
+        });
+        Thread grower = new Thread(new Runnable() {
+            public void run() {//fresh values, never removed, force many resizes
+                for (int i = 0; i < fresh; i++) {
+                    lf.add("k" + i);
+                    synchronized (published) {
+                        published[0] = i + 1;
+                    }
+                }
+            }
+        });
+        Runnable reader = new Runnable() {
+            public void run() {
+                java.util.Random r = new java.util.Random();
+                int missed = 0;
+                while (true) {
+                    boolean last;
+                    int upTo;
+                    synchronized (published) {
+                        last = !writing[0];
+                        upTo = published[0];
+                    }
+                    for (int i = 0; i < chain.length; i += 2) {
+                        if (!lf.contains(chain[i]))
+                            missed++;
+                    }
+                    for (int i = 0; i < 200 && upTo > 0; i++) {
+                        if (!lf.contains("k" + r.nextInt(upTo)))
+                            missed++;
+                    }
+                    if (last)
+                        break;
+                }
+                synchronized (misses) {
+                    misses[0] += missed;
+                }
+            }
+        };
+        Thread[] readers = {new Thread(reader), new Thread(reader)};
+        churn.start();
+        grower.start();
+        for (int i = 0; i < readers.length; i++)
+            readers[i].start();
+        churn.join();
+        grower.join();
+        synchronized (published) {
+            writing[0] = false;
+        }
+        for (int i = 0; i < readers.length; i++)
+            readers[i].join();
+
+        if (misses[0] == 0 && lf.size() == chain.length + fresh && lf.getLength() >= startLength * 128
+                && lf.contains(chain[1]) && lf.toArray().length == lf.size()) {
+            System.out.println("Yay 4");
+        }
+
+        //as the storage of a Set
+        Set<Integer> set = new Set<>(new ConcurrentHashTable<Integer>(2));
+        set.add(1);
+        set.add(2);
+        Set<Integer> other = new Set<>(new ConcurrentHashTable<Integer>(2));
+        other.add(2);
+        if (set.intersection(other).size() == 1 && set.union(other).size() == 2 && set.contains(1)) {
+            System.out.println("Yay 5");
+        }
+
+        //weakly consistent iteration: a writer during the walk causes no exception
+        ConcurrentHashTable<Integer> walked = new ConcurrentHashTable<>(16);
+        for (int i = 0; i < 1000; i++)
+            walked.add(i);
+        int seen = 0;
+        for (Integer v : walked) {
+            if (v < 1000) {
+                seen++;
+                walked.add(v + 1000);//rehashes more than once
+            }
+        }
+        if (seen == 1000 && walked.size() == 2000 && !walked.spliterator().hasCharacteristics(Spliterator.SIZED)
+                && set.stream().parallel().mapToInt(Integer::intValue).sum() == 3) {
+            System.out.println("Yay 6");
+        }
+
+        //lock-free mode with one degenerate chain: colliding keys added in
+        //sorted order make it deeper than a recursive walk could go
+        String[] sorted = {""};
+        for (int i = 0; i < 15; i++) {
+            String[] next = new String[sorted.length * 2];
+            for (int j = 0; j < sorted.length; j++) {
+                next[2 * j] = sorted[j] + "Aa";//"Aa" < "BB", so next stays sorted
+                next[2 * j + 1] = sorted[j] + "BB";
+            }
+            sorted = next;
+        }
+        final String[] deepKeys = sorted;
+        final int deepSize = 24000;
+        final ConcurrentHashTable<String> deep = new ConcurrentHashTable<>(1 << 16, false, 16, true);//never grows
+        final int[] added = new int[1];
+        final boolean[] deepDone = new boolean[1];//set even if the writer fails
+        final int[] deepMisses = new int[1];
+        Thread deepWriter = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    for (int i = 0; i < deepSize; i++) {
+                        deep.add(deepKeys[i]);
+                        synchronized (added) {
+                            added[0] = i + 1;
+                        }
+                    }
+                } finally {
+                    synchronized (added) {
+                        deepDone[0] = true;
+                    }
+                }
+            }
+        });
+        Thread deepReader = new Thread(new Runnable() {
+            public void run() {
+                java.util.Random r = new java.util.Random(11);
+                int missed = 0;
+                boolean last = false;
+                while (!last) {
+                    int upTo;
+                    synchronized (added) {
+                        upTo = added[0];
+                        last = deepDone[0];
+                    }
+                    if (upTo > 0 && !deep.contains(deepKeys[r.nextInt(upTo)]))
+                        missed++;
+                    if (deep.contains(deepKeys[deepSize]))//never added
+                        missed++;
+                }
+                deepMisses[0] = missed;
+            }
+        });
+        deepWriter.start();
+        deepReader.start();
+        deepWriter.join();
+        deepReader.join();
+
+        boolean deepOk = deepMisses[0] == 0 && deep.size() == deepSize;
+        for (int i = 0; i < deepSize; i += 3)
+            deepOk = deepOk && deep.remove(deepKeys[i]) && !deep.contains(deepKeys[i]);
+        int walkedDeep = 0;
+        for (String key : deep)
+            walkedDeep++;
+        if (deepOk && walkedDeep == deep.size() && deep.size() == deepSize - (deepSize + 2) / 3
+                && deep.toArray().length == deep.size() && deep.contains(deepKeys[deepSize - 1])
+                && deep.toString().length() > 0) {
+            System.out.println("Yay 7");
+        }
+    }
+
+}
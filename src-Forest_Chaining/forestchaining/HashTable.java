@@ -0,0 +1,2734 @@
+// A hash table implemented with separate chaining.
+// Every chain is organized as a binary search tree.
+
+package forestchaining;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+// imports for debugging only
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.File;
+import java.util.Random;
+
+/**
+ * A hash table implemented with separate chaining
+ * Every chain is organized as a binary search tree
+ *
+ * @param <T> the generic type
+ */
+class HashTable<T extends Comparable<T>> implements SetStorage<T> {
+
+
+    static private int minLength = 2;
+
+    // non-empty buckets moved per operation during an incremental rehash
+    static private int rehashStep = 4;
+
+    // tables holding at least this many values rehash on the ForkJoinPool
+    static private int parallelRehashThreshold = 1 << 16;
+
+    // snapshot layout: a header of magic, version, flags, length and size,
+    // then one block per non-empty bucket: bucket, count, byte length and
+    // the values in toArray order; all ints big-endian
+    static final int SNAPSHOT_MAGIC = 0x46435348;//"FCSH"
+    static final int SNAPSHOT_VERSION = 1;
+    static private final int SNAPSHOT_BALANCED = 1, SNAPSHOT_ADAPTIVE = 2, SNAPSHOT_POWER_OF_TWO = 4;
+    static private final int SNAPSHOT_HEADER = 5 * Integer.BYTES, BLOCK_HEADER = 3 * Integer.BYTES;
+    static private final int SNAPSHOT_BUFFER = 1 << 16;//bytes per channel read or write
+
+    private int size = 0;
+    private Chain<T>[] storage;//array base implementation
+    private final boolean balanced;//chains are self-balancing trees
+    private final boolean adaptive;//chains start inline and grow into trees
+
+    private boolean incremental = false;//spread rehash work over later operations
+    private boolean powerOfTwo = false;//power-of-two lengths, mixed hash and a mask
+    private int shrinkLoad = 0;//shrink below this load percentage, 0 never shrinks
+    private Chain<T>[] oldStorage;//table being drained, null if no rehash in progress
+    private int rehashIndex;//next bucket of oldStorage to move
+    private int modCount = 0;//adds, removes and rehashes, for fail-fast iteration
+
+    // running chain statistics over every bucket of storage, kept up to date
+    // by add and remove; a rehash drops them until the next stats call recounts
+    private boolean statsValid = false;
+    private int nonEmpty;//chains holding at least one value
+    private long totalHeight;//sum of the heights of the non-empty chains
+    private long totalLeaves;//sum of the leaves of all chains
+    private Histogram sizes;//buckets per chain size
+    private Histogram heights;//buckets per chain height + 1
+    private Histogram leaves;//buckets per chain leaf count
+
+    private HashTableMetrics metrics;//null unless metrics are enabled
+
+    private BalancedBST<T> sortedIndex;//every value again, in one tree; null unless enabled
+
+    private BloomFilter bloom;//every value's hash code, null unless enabled
+    private BloomFilter nextBloom;//filled by an incremental rehash, becomes bloom when it is done
+
+    // snapshots: with path copying every chain is a PersistentBST stamped
+    // with the generation it was made in; snapshot() shares storage and
+    // bumps the generation, so the next write copies the array once and
+    // every older chain (O(1), the nodes are shared) before changing it
+    private boolean pathCopying = false;//chains are PersistentBSTs
+    private boolean shared = false;//storage is also the array of a snapshot
+    private int generation = 0;//snapshots taken so far
+    private boolean readOnly = false;//this table is a snapshot
+
+    /**
+     * Return the table length
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return storage.length;
+    }
+
+    /**
+     * Turns incremental rehash on or off
+     * When on, growing the table only allocates the new array; the buckets
+     * are then moved a few at a time by later add/remove/contains calls
+     * and lookups check both tables until the move is done
+     * Whole-table operations (toString, toArray, the tree statistics and
+     * rehash) finish a move in progress first
+     *
+     * @param incremental true to rehash incrementally
+     */
+    public void setIncrementalRehash(boolean incremental) {
+        if (!incremental)
+            finishRehash();
+        this.incremental = incremental;
+    }
+
+    /**
+     * Checks if incremental rehash is on
+     *
+     * @return true, if on
+     */
+    public boolean isIncrementalRehash() {
+        return incremental;
+    }
+
+    /**
+     * Turns power-of-two indexing on or off and rehashes the table
+     * When on, lengths are rounded up to a power of two and the index is
+     * spread(hashCode) masked by length - 1 instead of a division;
+     * the mixing keeps hash codes like Integer's from clustering
+     *
+     * @param powerOfTwo true for power-of-two indexing
+     */
+    public void setPowerOfTwoIndexing(boolean powerOfTwo) {
+        if (this.powerOfTwo == powerOfTwo)
+            return;
+
+        finishRehash();//old buckets were placed with the old index function
+        this.powerOfTwo = powerOfTwo;
+        rehash(storage.length);
+    }
+
+    /**
+     * Checks if power-of-two indexing is on
+     *
+     * @return true, if on
+     */
+    public boolean isPowerOfTwoIndexing() {
+        return powerOfTwo;
+    }
+
+    /**
+     * Turns automatic shrinking on or off
+     * When on, a remove that leaves the load below shrinkLoad percent
+     * rehashes the table to 40% load (rounded up to a power of two with
+     * power-of-two indexing), incrementally if incremental rehash is on.
+     * Growing happens at 80% and lands at 40%, so capping shrinkLoad at 20
+     * means the size has to halve, or double, between two resizes and
+     * add/remove churn can't make the table flip back and forth
+     *
+     * @param shrinkLoad the low-water load percentage, 0 to 20; 0 turns shrinking off
+     */
+    public void setShrinkLoad(int shrinkLoad) {
+        if (shrinkLoad < 0 || shrinkLoad > 20)
+            throw new IllegalArgumentException("shrink load " + shrinkLoad + "% not in [0, 20]");
+        this.shrinkLoad = shrinkLoad;
+    }
+
+    /**
+     * Return the low-water load percentage
+     *
+     * @return the percentage, 0 if the table never shrinks
+     */
+    public int getShrinkLoad() {
+        return shrinkLoad;
+    }
+
+    /**
+     * Checks if an incremental rehash is in progress
+     *
+     * @return true, if the old table still holds values
+     */
+    public boolean isRehashing() {
+        return oldStorage != null;
+    }
+
+    /**
+     * Turns metrics on or off
+     * When on, add/contains/remove count their compareTo calls, contains
+     * feeds a probe-depth histogram and every rehash is timed; see
+     * HashTableMetrics. When off, the only cost is a null check per call
+     * Turning metrics off drops the counters, and turning them on again
+     * starts from zero
+     *
+     * @param enabled true to collect metrics
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        if (!enabled)
+            metrics = null;
+        else if (metrics == null)
+            metrics = new HashTableMetrics();
+    }
+
+    /**
+     * Return the metrics, for reading or registering with JMX
+     *
+     * @return the metrics, or null if they are off
+     */
+    public HashTableMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Turns the sorted index on or off
+     * When on, every value is also kept in one BalancedBST, so floor,
+     * ceiling, first, last and range queries take O(log N + K) instead of
+     * visiting every bucket, at the price of a second tree node per value
+     * and an O(log N) insert or remove on each add and remove.
+     * Worth it only when ordered queries dominate
+     *
+     * @param enabled true to keep the index
+     */
+    // O(N log N) to build the index, O(1) to drop it
+    public void setSortedIndex(boolean enabled) {
+        if (!enabled)
+            sortedIndex = null;
+        else if (sortedIndex == null) {
+            BalancedBST<T> index = new BalancedBST<>();
+            forEachWhile(index::insert);//always true, the values are distinct
+            sortedIndex = index;
+        }
+    }
+
+    /**
+     * Checks if the sorted index is on
+     *
+     * @return true, if on
+     */
+    public boolean isSortedIndex() {
+        return sortedIndex != null;
+    }
+
+    /**
+     * Turns the Bloom filter on or off
+     * When on, contains first asks a blocked Bloom filter sized for the
+     * table's capacity (80% of its length) and a definite miss returns
+     * after reading one cache line, without indexing storage or calling
+     * compareTo. add and addAll feed it; every rehash builds a new one
+     * (an incremental rehash fills it as buckets move), and so does a
+     * remove once more than half of the values in it are gone.
+     * About 1.25 bytes per bucket; worth it when most lookups miss
+     *
+     * @param enabled true to keep the filter
+     */
+    // O(N+M) to build the filter, O(1) to drop it
+    public void setBloomFilter(boolean enabled) {
+        if (!enabled)
+            bloom = nextBloom = null;
+        else if (bloom == null)
+            rebuildBloom();
+    }
+
+    /**
+     * Checks if the Bloom filter is on
+     *
+     * @return true, if on
+     */
+    public boolean isBloomFilter() {
+        return bloom != null;
+    }
+
+    /**
+     * Builds the Bloom filter again from every value, sized for the
+     * capacity of storage (the new table, during an incremental rehash)
+     */
+    private void rebuildBloom() {
+        BloomFilter filter = new BloomFilter(Math.max(size, (int) ((long) storage.length * 4 / 5)));
+        Predicate<T> put = value -> {
+            filter.put(value);
+            return true;
+        };
+        for (Chain<T> chain : storage) {
+            if (chain != null)
+                chain.forEachWhile(put);
+        }
+        if (oldStorage != null) {
+            for (int i = rehashIndex; i < oldStorage.length; i++) {
+                if (oldStorage[i] != null)
+                    oldStorage[i].forEachWhile(put);
+            }
+        }
+        bloom = filter;
+        nextBloom = null;//filter already covers the new table
+    }
+
+    /**
+     * Turns path copying on or off and rehashes the table
+     * When on, every chain is a PersistentBST: its nodes never change once
+     * linked, inserts and removes copy the O(H) nodes on the search path,
+     * so snapshot() can share the chains instead of copying the values.
+     * Chains are then plain (or AVL, if balanced) trees even if adaptive
+     *
+     * @param pathCopying true for path-copying chains
+     */
+    public void setPathCopying(boolean pathCopying) {
+        if (this.pathCopying == pathCopying)
+            return;
+
+        checkWritable();
+        finishRehash();
+        this.pathCopying = pathCopying;
+        rehash(storage.length);//rebuilds every chain as the new kind
+    }
+
+    /**
+     * Checks if path copying is on
+     *
+     * @return true, if on
+     */
+    public boolean isPathCopying() {
+        return pathCopying;
+    }
+
+    /**
+     * Returns a read-only table holding the values in the table right now
+     * With path copying the snapshot shares the bucket array and every
+     * chain with this table and costs O(1) (plus finishing a rehash in
+     * progress); the first add or remove afterwards copies the array, and
+     * each chain it changes is copied first, so later writes never show
+     * through. Without path copying the values are copied, chain by chain
+     * The snapshot has no metrics, sorted index or Bloom filter; add, remove and rehash
+     * throw UnsupportedOperationException. It does not change afterwards,
+     * so other threads can read it once it is safely published
+     *
+     * @return the snapshot
+     */
+    // O(1) with path copying, O(N+M) without: N as the number of values
+    // in hash table; M as the table length.
+    @SuppressWarnings("unchecked")
+    public HashTable<T> snapshot() {
+        if (readOnly)
+            return this;
+
+        finishRehash();
+        HashTable<T> view = new HashTable<>(minLength, balanced, adaptive);
+        view.powerOfTwo = powerOfTwo;
+        view.pathCopying = pathCopying;
+        view.size = size;
+        view.readOnly = true;
+        if (pathCopying) {
+            view.storage = storage;
+            shared = true;
+            generation++;//every chain now belongs to the snapshot too
+        } else {
+            view.storage = new Chain[storage.length];
+            for (int i = 0; i < storage.length; i++) {
+                if (storage[i] != null) {
+                    Object[] values = storage[i].toArray();
+                    view.storage[i] = newChain();
+                    view.storage[i].load(values, 0, values.length);//same shape
+                }
+            }
+        }
+        return view;
+    }
+
+    /**
+     * Checks if this table is a snapshot
+     *
+     * @return true, if add, remove and rehash throw
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Throws if this table is a snapshot
+     */
+    private void checkWritable() {
+        if (readOnly)
+            throw new UnsupportedOperationException("snapshot is read-only");
+    }
+
+    /**
+     * Gives this table its own copy of storage if a snapshot shares it
+     */
+    private void ownStorage() {
+        if (shared) {
+            storage = storage.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * Replaces a chain made before the last snapshot by a copy of it,
+     * so it can be changed in place; table must not be shared
+     *
+     * @param table storage or oldStorage
+     * @param index the bucket
+     */
+    // O(1): the copy shares every node
+    private void ownChain(Chain<T>[] table, int index) {
+        if (table[index] instanceof PersistentBST) {
+            PersistentBST<T> chain = (PersistentBST<T>) table[index];
+            if (chain.generation != generation)
+                table[index] = chain.copy(generation);
+        }
+    }
+
+    /**
+     * Return the number of values in hash table
+     *
+     * @return the Size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Creates a new, empty hash table with the same chain kind and modes,
+     * long enough that expectedSize values stay below 80% load
+     *
+     * @param expectedSize the expected number of values
+     * @return the empty table
+     */
+    public HashTable<T> newEmpty(int expectedSize) {
+        int length = lengthFor(expectedSize);
+        if (powerOfTwo && Integer.bitCount(length) != 1)
+            length = Integer.highestOneBit(length) << 1;
+
+        HashTable<T> table = new HashTable<>(length, balanced, adaptive);
+        table.incremental = incremental;
+        table.powerOfTwo = powerOfTwo;
+        table.shrinkLoad = shrinkLoad;
+        table.pathCopying = pathCopying;
+        if (bloom != null)
+            table.bloom = new BloomFilter(length * 4 / 5);
+        if (sortedIndex != null)
+            table.sortedIndex = new BalancedBST<>();
+        return table;
+    }
+
+    /**
+     * Return a string representation of all values in hash table
+     */
+    public String toString() {
+        finishRehash();
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < storage.length; i++) {
+            if (storage[i] != null) {
+                s.append(storage[i].toString());
+            }
+        }
+        return s.toString().trim();
+    }
+
+
+    /**
+     * Return a detailed string representation of the hash table.
+     *  Give the contents of each table entry
+     *
+     * @param verbose a detailed report of tree features for every entry
+     * @return the string
+     */
+    public String toStringDebug(boolean verbose) {
+        finishRehash();
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < storage.length; i++) {
+            if (storage[i] != null && storage[i].size() != 0) {
+                s.append("[" + i + "]: " + storage[i].toString().trim() + "\n");
+                if (verbose) {
+                    s.append("\t tree size:" + storage[i].size() + "\n");
+                    s.append("\t tree height:" + storage[i].height() + "\n");
+                    s.append("\t number of leaves:" + storage[i].numLeaves() + "\n");
+                }
+            } else
+                s.append("[" + i + "]: null\n");
+
+        }
+        return s.toString().trim();
+    }
+
+    /**
+     *  Instantiates a new hash table
+     *  Use minLength to initialize table if given length goes below that
+     *
+     * @param length the length
+     */
+    public HashTable(int length) {
+        this(length, false, false);
+    }
+
+    /**
+     *  Instantiates a new hash table
+     *  With balanced set, every chain is a BalancedBST so a bucket
+     *  stays O(log chain) even when many values collide
+     *
+     * @param length the length
+     * @param balanced true for self-balancing chains
+     */
+    public HashTable(int length, boolean balanced) {
+        this(length, balanced, false);
+    }
+
+    /**
+     *  Instantiates a new hash table
+     *  With adaptive set, every chain is an AdaptiveChain that keeps short
+     *  chains inline or in a small array and only builds a tree past a threshold
+     *
+     * @param length the length
+     * @param balanced true for self-balancing chains (the tree stage, if adaptive)
+     * @param adaptive true for inline/array/tree chains
+     */
+    @SuppressWarnings("unchecked")
+    public HashTable(int length, boolean balanced, boolean adaptive) {
+        if (length < minLength)
+            length = minLength;
+
+        storage = new Chain[length];
+        this.balanced = balanced;
+        this.adaptive = adaptive;
+
+    }
+
+    /**
+     * Creates a new hash table long enough that expectedSize values
+     * stay below 80% load, so filling it never rehashes
+     *
+     * @param <T> the generic type
+     * @param expectedSize the expected number of values
+     * @return the empty table
+     */
+    public static <T extends Comparable<T>> HashTable<T> withExpectedSize(int expectedSize) {
+        return new HashTable<>(lengthFor(expectedSize));
+    }
+
+    /**
+     * Smallest length keeping expectedSize values below 80% load
+     *
+     * @param expectedSize the expected number of values
+     * @return the length, at most 2^30
+     */
+    private static int lengthFor(int expectedSize) {
+        return (int) Math.min((long) Math.max(expectedSize, 0) * 5 / 4 + 1, 1 << 30);
+    }
+
+    /**
+     * Creates an empty chain of the configured kind
+     *
+     * @return the new chain
+     */
+    private Chain<T> newChain() {
+        if (pathCopying) {
+            PersistentBST<T> chain = new PersistentBST<>(balanced);
+            chain.generation = generation;
+            return chain;
+        }
+        if (adaptive)
+            return new AdaptiveChain<>(balanced);
+        return balanced ? new BalancedBST<>() : new SimpleBST<>();
+    }
+
+    //
+    // - Uses separate chaining for collision.
+    // - Returns false if value cannot be added
+    // (duplicate values or null values).
+    // - Returns true for a successful insertion.
+    // - After adding a new value, if the table
+    // has a load>= 80%, rehash the table to twice
+    // the size.
+    //
+    // Worst case: O(N), Average case: O(load)
+    // - N as the number of values in hash table
+    // - not considering rehashing overhead
+    // - with incremental rehash, growing costs O(M) for the new
+    // array and each call moves at most rehashStep buckets
+
+    /**
+     * Adds value into hash table
+     *
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    public boolean add(T value) {
+        if (value == null)
+            return false;
+
+        checkWritable();
+        rehashStep();
+        if (metrics != null) {
+            int compares = probe(value);
+            if (compares >= 0) {
+                metrics.add(compares);
+                return false;//duplicate
+            }
+            metrics.add(~compares);
+        }
+        if (oldStorage != null) {//not moved yet means not in the new table
+            int old = index(value, oldStorage.length);
+            if (oldStorage[old] != null && oldStorage[old].contains(value))
+                return false;
+        }
+
+        int index = index(value, getLength());
+        if (pathCopying) {
+            ownStorage();
+            ownChain(storage, index);
+        }
+        if (statsValid)
+            untrack(storage[index]);
+        if (storage[index] == null)
+            storage[index] = newChain();
+
+        boolean inserted = storage[index].insert(value);
+        if (statsValid)
+            track(storage[index]);
+
+        if (inserted) {
+            size++;
+            modCount++;
+            if (sortedIndex != null)
+                sortedIndex.insert(value);
+            if (bloom != null) {
+                bloom.put(value);
+                if (nextBloom != null)
+                    nextBloom.put(value);
+            }
+
+            double loadFactor = (double) size * 100 / storage.length;
+            if (loadFactor >= 80) {//80% reached
+                if (incremental)
+                    startRehash(storage.length * 2);//double the size, move later
+                else
+                    rehash(storage.length * 2);//double the size
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds every value of c
+     * The table is rehashed at most once, to fit size() + c.size() values,
+     * instead of doubling again and again. A stable counting sort then groups
+     * the values by bucket, so each chain is built in one pass and comes out
+     * exactly as add() calls in the same order would build it
+     *
+     * @param c the values
+     * @return the number of values added
+     */
+    // O(N+K+M): N as the number of values in hash table;
+    // K as c.size(); M as the table length.
+    @SuppressWarnings("unchecked")
+    public int addAll(Collection<? extends T> c) {
+        checkWritable();
+        finishRehash();
+        long needed = (long) size + c.size();
+        if (needed * 100 >= (long) storage.length * 80)
+            rehash(lengthFor((int) Math.min(needed, Integer.MAX_VALUE)));
+
+        if (c.size() < storage.length / 8) {//too few to pay for a pass over every bucket
+            int count = 0;
+            for (T value : c) {
+                if (add(value))
+                    count++;
+            }
+            return count;
+        }
+
+        // count the values of each bucket, nulls are dropped
+        Object[] values = c.toArray();
+        int[] buckets = new int[values.length];
+        int[] end = new int[storage.length + 1];
+        int n = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                buckets[n] = index((T) values[i], storage.length);
+                end[buckets[n] + 1]++;
+                values[n++] = values[i];
+            }
+        }
+        for (int b = 0; b < storage.length; b++)
+            end[b + 1] += end[b];
+
+        // place them, keeping their order within a bucket;
+        // afterwards end[b] is where bucket b stops
+        Object[] grouped = new Object[n];
+        for (int i = 0; i < n; i++)
+            grouped[end[buckets[i]]++] = values[i];
+
+        int count = 0;
+        int from = 0;
+        if (pathCopying)
+            ownStorage();
+        for (int b = 0; b < storage.length; b++) {
+            if (from < end[b]) {
+                if (pathCopying)
+                    ownChain(storage, b);
+                if (storage[b] == null)
+                    storage[b] = newChain();
+                Chain<T> chain = storage[b];
+                for (int i = from; i < end[b]; i++) {
+                    if (chain.insert((T) grouped[i])) {
+                        count++;
+                        if (sortedIndex != null)
+                            sortedIndex.insert((T) grouped[i]);
+                        if (bloom != null)
+                            bloom.put(grouped[i]);
+                    }
+                }
+                from = end[b];
+            }
+        }
+
+        size += count;
+        statsValid = false;//recounted by the next stats call
+        if (count > 0)
+            modCount++;
+        if ((long) size * 100 >= (long) storage.length * 80)
+            rehash(storage.length * 2);//only if the table could not be made long enough
+        return count;
+    }
+
+    /**
+     * Index function for the hashtable
+     *
+     * @param value the value
+     * @param capacity the capacity
+     * @return the int
+     */
+    private int index(T value, int capacity) {
+        if (powerOfTwo)
+            return spread(value.hashCode()) & (capacity - 1);//capacity is a power of two
+
+        int index = Math.abs(value.hashCode() % capacity);
+        return index;
+    }
+
+    /**
+     * Bit-mixing finalizer (MurmurHash3 fmix32) so that every
+     * bit of the hash code reaches the low bits used by the mask
+     *
+     * @param h the hash code
+     * @return the mixed hash
+     */
+    static int spread(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    // Checks whether value is in hash table.
+    // - Returns true is present, false otherwise
+    // Worst case: O(N), Average case: O(load)
+    // - N as the number of values in hash table
+
+    /**
+     * Contains method
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    public boolean contains(T value) {
+        rehashStep();
+        if (bloom != null && !bloom.mightContain(value)) {
+            if (metrics != null)
+                metrics.bloomRejected();
+            return false;
+        }
+        if (metrics != null) {
+            int compares = probe(value);
+            metrics.contains(compares < 0 ? ~compares : compares);
+            if (compares < 0 && bloom != null)
+                metrics.bloomFalsePositive();
+            return compares >= 0;
+        }
+
+        int index = index(value, getLength());
+        if (storage[index] != null && storage[index].contains(value))
+            return true;
+
+        if (oldStorage != null) {
+            index = index(value, oldStorage.length);
+            return oldStorage[index] != null && oldStorage[index].contains(value);
+        }
+        return false;
+    }
+
+    /**
+     * Looks value up in the table, and in the old table during an
+     * incremental rehash, counting compareTo calls
+     *
+     * @param value the value
+     * @return the compareTo calls if found, their complement (~) if not
+     */
+    private int probe(T value) {
+        int index = index(value, getLength());
+        int compares = 0;
+        if (storage[index] != null) {
+            compares = storage[index].probe(value);
+            if (compares >= 0)
+                return compares;
+            compares = ~compares;
+        }
+
+        if (oldStorage != null) {
+            index = index(value, oldStorage.length);
+            if (oldStorage[index] != null) {
+                int old = oldStorage[index].probe(value);
+                return old >= 0 ? compares + old : ~(compares + ~old);
+            }
+        }
+        return ~compares;
+    }
+
+    // Removes and returns true if value is in hash table.
+    // Returns false if value cannot be removed
+    // (values not in tree or null values)
+    // Worst case: O(N), Average case: O(load)
+    // - N as the number of values in hash table
+
+    /**
+     * Removes the value
+     * A chain left empty is dropped from its bucket, and the table
+     * shrinks if the load falls below the shrink load (see setShrinkLoad)
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    public boolean remove(T value) {
+        checkWritable();
+        rehashStep();
+        if (metrics != null) {
+            int compares = probe(value);
+            metrics.remove(compares < 0 ? ~compares : compares);
+            if (compares < 0)
+                return false;
+        }
+
+        int index = index(value, getLength());
+        if (pathCopying && storage[index] != null) {
+            ownStorage();
+            ownChain(storage, index);
+        }
+        Chain<T> chain = storage[index];
+        if (chain != null) {
+            if (statsValid)
+                untrack(chain);
+            boolean removed = chain.remove(value);
+            if (statsValid)
+                track(chain);
+            if (removed) {
+                if (chain.size() == 0)
+                    storage[index] = null;//release the empty shell
+                removed(value);
+                return true;
+            }
+        }
+
+        if (oldStorage != null) {
+            index = index(value, oldStorage.length);
+            if (pathCopying && oldStorage[index] != null)
+                ownChain(oldStorage, index);//startRehash owned the array
+            chain = oldStorage[index];
+            if (chain != null && chain.remove(value)) {
+                if (chain.size() == 0)
+                    oldStorage[index] = null;
+                removed(value);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bookkeeping after a successful remove; shrinks the table if
+     * automatic shrinking is on and the load fell below shrinkLoad
+     *
+     * @param value the removed value
+     */
+    private void removed(T value) {
+        size--;
+        modCount++;
+        if (sortedIndex != null)
+            sortedIndex.remove(value);
+        if (bloom != null && bloom.remove())
+            rebuildBloom();//mostly stale bits
+
+        if (shrinkLoad > 0 && (long) size * 100 < (long) storage.length * shrinkLoad) {
+            int newLength = (int) Math.max((long) size * 100 / 40, minLength);//40% load
+            if (newLength < storage.length) {
+                if (incremental)
+                    startRehash(newLength);
+                else
+                    rehash(newLength);
+            }
+        }
+    }
+
+    // Rehash hash table to newLength.
+    // - This can be used to increase or decrease the
+    // capacity of the storage.
+
+    // - If the new capacity is smaller than minLength,
+    // return false and do not rehash.
+
+    // - If you are asked to rehash to a length such that
+    // the load would be >= 0.8, double the length parameter
+    // until the load would be < 0.8 and use that new length.
+
+    // - If the new length has to go beyond Integer.MAX_VALUE
+    // to satisfy the load requirement, return false
+
+    // - Return true if you were able to rehash.
+
+    // All values should be rehashed following this order:
+    // - Hash table entries should be rehashed based on array index
+    // in ascending order.
+    // - Multiple values in a chain (i.e. a binary search tree)
+    // should be rehashed in pre-order.
+
+    // O(N+M): N as the number of values in hash table;
+    // M as the table length.
+
+    /**
+     * Rehash the table to new length if not less than previous length
+     *
+     * @param newLength the new length
+     * @return true, if successful
+     */
+    @SuppressWarnings("unchecked")
+    public boolean rehash(int newLength) {
+        checkWritable();
+        finishRehash();
+        newLength = fitLength(newLength);
+        if (newLength < 0)
+            return false;
+
+        long start = metrics != null ? System.nanoTime() : 0;
+        Chain<T>[] newStorage = new Chain[newLength];//create new table pass values to new re hashed table
+        if (size >= parallelRehashThreshold)
+            parallelRehash(newStorage);
+        else {
+            for (int i = 0; i < storage.length; i++) {
+                if (storage[i] != null)
+                    moveChain(storage[i], newStorage);
+            }
+        }
+
+        storage = newStorage;
+        shared = false;
+        modCount++;
+        statsValid = false;
+        if (bloom != null)
+            rebuildBloom();//sized for the new length
+        if (metrics != null) {
+            metrics.rehashWork(System.nanoTime() - start);
+            metrics.rehashed(size);
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Rehash helper for big tables, run on the common ForkJoinPool
+     * The old buckets are split into chunks and the new buckets into ranges.
+     * A stable counting sort groups the values by destination range, then
+     * one task builds each range, so no two tasks ever touch the same chain
+     * and every chain receives its values in the same order as the
+     * sequential rehash (ascending old index, pre-order within a chain)
+     *
+     * @param newStorage the new, empty table
+     */
+    @SuppressWarnings("unchecked")
+    private void parallelRehash(final Chain<T>[] newStorage) {
+        final Chain<T>[] table = storage;
+        final int parts = ForkJoinPool.getCommonPoolParallelism() * 4;
+        final int newLength = newStorage.length;
+
+        // where the values of each old bucket start, in rehash order
+        final int[] offset = new int[table.length + 1];
+        for (int i = 0; i < table.length; i++)
+            offset[i + 1] = offset[i] + (table[i] == null ? 0 : table[i].size());
+
+        // 1. flatten every chunk and count its values per destination range
+        final Object[] values = new Object[size];
+        final int[] dest = new int[size];
+        final int[][] counts = new int[parts][parts];//[chunk][range]
+        forEach(parts, new IntConsumer() {
+            public void accept(int c) {
+                int end = split(c + 1, parts, table.length);
+                for (int i = split(c, parts, table.length); i < end; i++) {
+                    if (table[i] != null) {
+                        Object[] elements = table[i].toArray();
+                        for (int j = 0; j < elements.length; j++) {
+                            int k = offset[i] + j;
+                            values[k] = elements[j];
+                            dest[k] = index((T) elements[j], newLength);
+                            counts[c][range(dest[k], parts, newLength)]++;
+                        }
+                    }
+                }
+            }
+        });
+
+        // 2. range-major prefix sums: chunk c writes range r from next[c][r]
+        final int[][] next = new int[parts][parts];
+        final int[] rangeStart = new int[parts + 1];
+        int position = 0;
+        for (int r = 0; r < parts; r++) {
+            rangeStart[r] = position;
+            for (int c = 0; c < parts; c++) {
+                next[c][r] = position;
+                position += counts[c][r];
+            }
+        }
+        rangeStart[parts] = position;
+
+        // 3. scatter, keeping the order within each chunk
+        final Object[] sorted = new Object[size];
+        final int[] sortedDest = new int[size];
+        forEach(parts, new IntConsumer() {
+            public void accept(int c) {
+                int end = offset[split(c + 1, parts, table.length)];
+                for (int k = offset[split(c, parts, table.length)]; k < end; k++) {
+                    int at = next[c][range(dest[k], parts, newLength)]++;
+                    sorted[at] = values[k];
+                    sortedDest[at] = dest[k];
+                }
+            }
+        });
+
+        // 4. build each range of new buckets
+        forEach(parts, new IntConsumer() {
+            public void accept(int r) {
+                for (int k = rangeStart[r]; k < rangeStart[r + 1]; k++) {
+                    int index = sortedDest[k];
+                    if (newStorage[index] == null)
+                        newStorage[index] = newChain();
+                    newStorage[index].insert((T) sorted[k]);
+                }
+            }
+        });
+    }
+
+    /**
+     * First index of part p when length items are split into parts
+     *
+     * @param p the part, 0 to parts
+     * @param parts the number of parts
+     * @param length the number of items
+     * @return the first index
+     */
+    private static int split(int p, int parts, int length) {
+        return (int) ((long) p * length / parts);
+    }
+
+    /**
+     * The destination range holding a new bucket index
+     *
+     * @param index the bucket index
+     * @param parts the number of ranges
+     * @param length the new length
+     * @return the range
+     */
+    private static int range(int index, int parts, int length) {
+        return (int) ((long) index * parts / length);
+    }
+
+    /**
+     * Runs body(0) to body(n - 1) on the common ForkJoinPool and waits
+     *
+     * @param n the number of calls
+     * @param body the body
+     */
+    private static void forEach(int n, IntConsumer body) {
+        ForkJoinPool.commonPool().invoke(new RangeTask(0, n, body));
+    }
+
+    /**
+     * Fork-join task calling body for every index in [lo, hi)
+     */
+    private static class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;//never serialized, RecursiveAction is Serializable
+
+        private final int lo, hi;
+        private final IntConsumer body;
+
+        RangeTask(int lo, int hi, IntConsumer body) {
+            this.lo = lo;
+            this.hi = hi;
+            this.body = body;
+        }
+
+        protected void compute() {
+            if (hi - lo == 1) {
+                body.accept(lo);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new RangeTask(lo, mid, body), new RangeTask(mid, hi, body));
+        }
+    }
+
+    /**
+     * Applies the rehash length rules: at least minLength,
+     * rounded up to a power of two with power-of-two indexing,
+     * doubled until the load is below 80%
+     *
+     * @param newLength the requested length
+     * @return the length to use, or -1 if there is none
+     */
+    private int fitLength(int newLength) {
+        if (newLength < minLength)
+            return -1;
+
+        if (powerOfTwo && Integer.bitCount(newLength) != 1) {
+            if (newLength > (1 << 30))
+                return -1;
+            newLength = Integer.highestOneBit(newLength) << 1;
+        }
+
+        double load = size * 100.0 / newLength;
+        while (load >= 80.0) {//while load is >= .8
+            if (newLength > Integer.MAX_VALUE / 2)
+                return -1;
+
+            newLength *= 2;//double the length
+            load = size * 100.0 / newLength;
+        }
+        return newLength;
+    }
+
+    /**
+     * Reinserts every value of a chain, in pre-order, into a table
+     *
+     * @param chain the chain to move
+     * @param target the destination table
+     */
+    @SuppressWarnings("unchecked")
+    private void moveChain(Chain<T> chain, Chain<T>[] target) {
+        Object[] elements = chain.toArray();
+        for (int j = 0; j < elements.length; j++) {
+            int index = index((T) elements[j], target.length);
+            if (target[index] == null)
+                target[index] = newChain();
+
+            target[index].insert((T) elements[j]);
+            if (nextBloom != null)
+                nextBloom.put(elements[j]);
+        }
+    }
+
+    /**
+     * Starts an incremental rehash: the new array becomes the table
+     * and the current one is drained by rehashStep()
+     *
+     * @param newLength the new length
+     * @return true, if a rehash was started
+     */
+    @SuppressWarnings("unchecked")
+    private boolean startRehash(int newLength) {
+        finishRehash();//at most one rehash in flight
+        newLength = fitLength(newLength);
+        if (newLength < 0)
+            return false;
+
+        long start = metrics != null ? System.nanoTime() : 0;
+        ownStorage();//rehashStep clears the buckets it moves
+        oldStorage = storage;
+        storage = new Chain[newLength];
+        rehashIndex = 0;
+        if (bloom != null)
+            nextBloom = new BloomFilter(Math.max(size, (int) ((long) newLength * 4 / 5)));
+        if (metrics != null)
+            metrics.rehashWork(System.nanoTime() - start);
+        modCount++;
+        statsValid = false;
+        return true;
+    }
+
+    /**
+     * Moves up to rehashStep non-empty buckets from the old table,
+     * skipping at most ten times as many empty ones
+     */
+    private void rehashStep() {
+        if (oldStorage == null)
+            return;
+
+        long start = metrics != null ? System.nanoTime() : 0;
+        int moved = 0;
+        int visited = 0;
+        while (rehashIndex < oldStorage.length && moved < rehashStep && visited < rehashStep * 10) {
+            if (oldStorage[rehashIndex] != null) {
+                moveChain(oldStorage[rehashIndex], storage);
+                oldStorage[rehashIndex] = null;
+                moved++;
+            }
+            rehashIndex++;
+            visited++;
+        }
+
+        if (rehashIndex == oldStorage.length)
+            doneRehash();
+        if (metrics != null)
+            rehashTimed(start);
+    }
+
+    /**
+     * Drops the drained old table; the filter built while it was
+     * drained takes over
+     */
+    private void doneRehash() {
+        oldStorage = null;
+        if (nextBloom != null) {
+            bloom = nextBloom;
+            nextBloom = null;
+        }
+    }
+
+    /**
+     * Adds the time since start to the rehash metrics,
+     * closing the rehash if the old table is drained
+     *
+     * @param start the System.nanoTime() the work started at
+     */
+    private void rehashTimed(long start) {
+        metrics.rehashWork(System.nanoTime() - start);
+        if (oldStorage == null)
+            metrics.rehashed(size);
+    }
+
+    /**
+     * Moves everything left in the old table, if a rehash is in progress
+     */
+    private void finishRehash() {
+        if (oldStorage == null)
+            return;
+
+        long start = metrics != null ? System.nanoTime() : 0;
+        for (; rehashIndex < oldStorage.length; rehashIndex++) {
+            if (oldStorage[rehashIndex] != null)
+                moveChain(oldStorage[rehashIndex], storage);
+        }
+        doneRehash();
+        if (metrics != null)
+            rehashTimed(start);
+    }
+
+    /**
+     * Applies action to the values in place, in toArray order,
+     * until it returns false
+     * The action must not add or remove values of this table
+     *
+     * @param action the action
+     * @return true if every value was visited, false if the action stopped early
+     */
+    // O(N+M): N as the number of values in hash table;
+    // M as the table length.
+    public boolean forEachWhile(Predicate<? super T> action) {
+        finishRehash();//so lookups made by the action can't move buckets under us
+        for (int i = 0; i < storage.length; i++) {
+            if (storage[i] != null && !storage[i].forEachWhile(action))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Iterates the values in toArray order, walking the chains in place
+     * Fail-fast: once the table is added to, removed from or rehashed,
+     * next() throws a ConcurrentModificationException
+     *
+     * @return the iterator
+     */
+    public Iterator<T> iterator() {
+        finishRehash();//iterate a single table
+        return new TableIterator();
+    }
+
+    /**
+     * Iterates the values in ascending compareTo order
+     * Every chain is already sorted, so a heap merges one in-order cursor
+     * per non-empty chain: O(log K) per value and O(K + H) memory for K
+     * non-empty chains of height up to H, with no copy of the values
+     * Fail-fast like the iterator
+     *
+     * @return the iterator
+     */
+    // O(N log K + M) for the whole walk: N values, K non-empty chains,
+    // M as the table length.
+    public Iterator<T> sortedIterator() {
+        finishRehash();
+        return new MergeIterator();
+    }
+
+    /**
+     * Applies action to the values in [lo, hi) until it returns false
+     * With the sorted index they come in ascending order from one range walk
+     * of the index; without it, every chain prunes the subtrees outside the
+     * range, so values come in ascending order per bucket only
+     * The action must not add or remove values of this table
+     *
+     * @param lo the lowest value, inclusive
+     * @param hi the highest value, exclusive
+     * @param action the action
+     * @return true if every value in range was visited, false if the action stopped early
+     */
+    // O(log N + K) with the index, O(M + K + sum of the chain heights) without:
+    // K as the values in range; M as the table length.
+    public boolean forEachInRange(T lo, T hi, Predicate<? super T> action) {
+        if (sortedIndex != null)
+            return sortedIndex.forEachInRange(lo, hi, action);
+
+        finishRehash();
+        for (int i = 0; i < storage.length; i++) {
+            if (storage[i] != null && !storage[i].forEachInRange(lo, hi, action))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the biggest value not bigger than value
+     * O(log N) with the sorted index, otherwise the floors of the chains
+     * are compared
+     *
+     * @param value the value
+     * @return the floor, null if there is none or value is null
+     */
+    public T floor(T value) {
+        if (sortedIndex != null)
+            return sortedIndex.floor(value);
+        return value == null ? null : closest(value, -1);
+    }
+
+    /**
+     * Returns the smallest value not smaller than value
+     * O(log N) with the sorted index, otherwise the ceilings of the chains
+     * are compared
+     *
+     * @param value the value
+     * @return the ceiling, null if there is none or value is null
+     */
+    public T ceiling(T value) {
+        if (sortedIndex != null)
+            return sortedIndex.ceiling(value);
+        return value == null ? null : closest(value, 1);
+    }
+
+    /**
+     * Returns the smallest value
+     * O(log N) with the sorted index, otherwise the chains' first values are compared
+     *
+     * @return the first value, null if empty
+     */
+    public T first() {
+        if (sortedIndex != null)
+            return sortedIndex.first();
+        return closest(null, 1);
+    }
+
+    /**
+     * Returns the biggest value
+     * O(log N) with the sorted index, otherwise the chains' last values are compared
+     *
+     * @return the last value, null if empty
+     */
+    public T last() {
+        if (sortedIndex != null)
+            return sortedIndex.last();
+        return closest(null, -1);
+    }
+
+    /**
+     * Best of one O(H) lookup per chain, behind floor/ceiling/first/last
+     *
+     * @param bound the bound, null for first/last
+     * @param side 1 for the smallest value not below bound, -1 for the biggest not above it
+     * @return the value, null if there is none
+     */
+    // O(M + sum of the chain heights): M as the table length.
+    private T closest(T bound, int side) {
+        finishRehash();
+        T best = null;
+        for (int i = 0; i < storage.length; i++) {
+            Chain<T> chain = storage[i];
+            if (chain == null)
+                continue;
+            T candidate;
+            if (bound == null)
+                candidate = side > 0 ? chain.first() : chain.last();
+            else
+                candidate = side > 0 ? chain.ceiling(bound) : chain.floor(bound);
+            if (candidate != null && (best == null || Integer.signum(candidate.compareTo(best)) * side < 0))
+                best = candidate;
+        }
+        return best;
+    }
+
+    /**
+     * Fail-fast k-way merge of the chains' sorted iterators
+     */
+    private class MergeIterator implements Iterator<T> {
+        private final int expectedModCount = modCount;
+        private final PriorityQueue<Cursor<T>> heap;
+
+        MergeIterator() {
+            ArrayList<Cursor<T>> cursors = new ArrayList<>();
+            for (int i = 0; i < storage.length; i++) {
+                if (storage[i] != null) {
+                    Iterator<T> chain = storage[i].sortedIterator();
+                    if (chain.hasNext())
+                        cursors.add(new Cursor<>(chain.next(), chain));
+                }
+            }
+            heap = new PriorityQueue<>(cursors);//heapified in O(K)
+        }
+
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            Cursor<T> smallest = heap.poll();
+            if (smallest == null)
+                throw new NoSuchElementException();
+
+            T value = smallest.head;
+            if (smallest.rest.hasNext()) {
+                smallest.head = smallest.rest.next();
+                heap.add(smallest);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Smallest unread value of one chain, ordered by it, and the rest of the chain
+     *
+     * @param <T> the generic type
+     */
+    private static class Cursor<T extends Comparable<T>> implements Comparable<Cursor<T>> {
+        T head;
+        final Iterator<T> rest;
+
+        Cursor(T head, Iterator<T> rest) {
+            this.head = head;
+            this.rest = rest;
+        }
+
+        public int compareTo(Cursor<T> other) {
+            return head.compareTo(other.head);
+        }
+    }
+
+    /**
+     * Returns a spliterator that splits on bucket ranges
+     * It reports SIZED, DISTINCT and NONNULL; the halves of a split drop
+     * SIZED since their sizes are only estimates
+     * Fail-fast like the iterator
+     *
+     * @return the spliterator
+     */
+    public Spliterator<T> spliterator() {
+        finishRehash();
+        return new BucketSpliterator(storage, 0, storage.length, size, true);
+    }
+
+    /**
+     * Fail-fast iterator, one bucket at a time
+     */
+    private class TableIterator implements Iterator<T> {
+        private final Chain<T>[] table = storage;
+        private final int expectedModCount = modCount;
+        private int next = 0;//next bucket to open
+        private Iterator<T> chain = Collections.emptyIterator();
+
+        public boolean hasNext() {
+            while (!chain.hasNext()) {
+                if (next == table.length)
+                    return false;
+                if (table[next] != null)
+                    chain = table[next].iterator();
+                next++;
+            }
+            return true;
+        }
+
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return chain.next();
+        }
+    }
+
+    /**
+     * Fail-fast spliterator over the buckets [index, fence) of a table
+     * Splitting hands the lower half of the remaining buckets to the new
+     * spliterator, so parallel streams scan disjoint chains
+     */
+    private class BucketSpliterator implements Spliterator<T> {
+        private final Chain<T>[] table;
+        private final int expectedModCount = modCount;
+        private int index;//next bucket to open
+        private final int fence;//one past the last bucket
+        private long estimate;//exact until the first split
+        private boolean sized;
+        private Iterator<T> chain;//bucket being read by tryAdvance, or null
+
+        BucketSpliterator(Chain<T>[] table, int index, int fence, long estimate, boolean sized) {
+            this.table = table;
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.sized = sized;
+        }
+
+        public Spliterator<T> trySplit() {
+            int lo = index;
+            int mid = (lo + fence) >>> 1;
+            if (lo >= mid)
+                return null;
+
+            index = mid;
+            estimate >>>= 1;
+            sized = false;
+            return new BucketSpliterator(table, lo, mid, estimate, false);
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null)
+                throw new NullPointerException();
+
+            while (chain == null || !chain.hasNext()) {
+                if (index >= fence) {
+                    chain = null;
+                    return false;
+                }
+                chain = table[index] == null ? null : table[index].iterator();
+                index++;
+            }
+            action.accept(chain.next());
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (action == null)
+                throw new NullPointerException();
+
+            if (chain != null) {
+                while (chain.hasNext())
+                    action.accept(chain.next());
+                chain = null;
+            }
+            for (; index < fence; index++) {
+                if (table[index] != null) {
+                    table[index].forEachWhile(value -> {
+                        action.accept(value);
+                        return true;
+                    });
+                }
+            }
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public long estimateSize() {
+            return estimate;
+        }
+
+        public int characteristics() {
+            return (sized ? Spliterator.SIZED : 0) | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+
+    // Returns an array representation of all value in hash table.
+    // The array length should be the same as number of values in hash table.
+    //
+    // O(N+M): N as the number of values in hash table;
+    /**
+     * Converts the hashtable elements to an array
+     *
+     * @return the object[] array
+     */
+    // M as the table length.
+    public Object[] toArray() {
+        finishRehash();
+        Object[] array = new Object[size];
+        int index = 0;
+        for (int i = 0; i < storage.length; i++) {
+            if (storage[i] != null) {
+                Object[] elements = storage[i].toArray();
+                for (int j = 0; j < elements.length; j++) {
+                    array[index++] = elements[j];
+                }
+            }
+        }
+
+        return array;
+    }
+
+    /**
+     * Writes a binary snapshot of the table to channel, from its position
+     * The table length, chain kind and indexing go in the header; every
+     * non-empty bucket is then one block with its values in toArray order,
+     * which is pre-order for tree chains
+     *
+     * @param channel the channel, e.g. a FileChannel
+     * @param codec the value encoding
+     * @throws IOException if writing fails
+     */
+    // O(N+M): N as the number of values in hash table;
+    // M as the table length.
+    public void writeSnapshot(WritableByteChannel channel, SnapshotCodec<T> codec) throws IOException {
+        finishRehash();
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_BUFFER);
+        buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION)
+                .putInt((balanced ? SNAPSHOT_BALANCED : 0) | (adaptive ? SNAPSHOT_ADAPTIVE : 0)
+                        | (powerOfTwo ? SNAPSHOT_POWER_OF_TWO : 0))
+                .putInt(storage.length).putInt(size);
+
+        for (int i = 0; i < storage.length; i++) {
+            if (storage[i] == null || storage[i].size() == 0)
+                continue;
+
+            Object[] values = storage[i].toArray();
+            long bytes = 0;
+            for (Object value : values)
+                bytes += codec.size(cast(value));
+            if (bytes > Integer.MAX_VALUE - BLOCK_HEADER)
+                throw new IOException("bucket " + i + " needs " + bytes + " bytes");
+
+            buffer = room(channel, buffer, BLOCK_HEADER + (int) bytes);
+            buffer.putInt(i).putInt(values.length).putInt((int) bytes);
+            for (Object value : values)
+                codec.write(cast(value), buffer);
+        }
+        flush(channel, buffer);
+    }
+
+    /**
+     * Reads a table written by writeSnapshot, from the position of channel
+     * The table is allocated at its final length, and every block is loaded
+     * straight into the bucket it was written from, so no value is rehashed
+     * and tree chains are rebuilt in O(chain size) with their old shape.
+     * Modes other than the chain kind and the indexing start at their defaults
+     *
+     * @param <T> the generic type
+     * @param channel the channel, e.g. a FileChannel
+     * @param codec the value encoding
+     * @return the table
+     * @throws IOException if reading fails or the snapshot is malformed
+     */
+    // O(N+M): N as the number of values in hash table;
+    // M as the table length.
+    public static <T extends Comparable<T>> HashTable<T> readSnapshot(ReadableByteChannel channel, SnapshotCodec<T> codec)
+            throws IOException {
+        ByteBuffer buffer = fill(channel, ByteBuffer.allocate(SNAPSHOT_BUFFER).limit(0), SNAPSHOT_HEADER);
+        if (buffer.getInt() != SNAPSHOT_MAGIC)
+            throw new IOException("not a hash table snapshot");
+        int version = buffer.getInt();
+        if (version != SNAPSHOT_VERSION)
+            throw new IOException("snapshot version " + version + " not supported");
+        int flags = buffer.getInt();
+        int length = buffer.getInt();
+        int size = buffer.getInt();
+        boolean powerOfTwo = (flags & SNAPSHOT_POWER_OF_TWO) != 0;
+        if (length < minLength || size < 0 || (powerOfTwo && Integer.bitCount(length) != 1))
+            throw new IOException("bad snapshot header: length " + length + ", size " + size);
+
+        HashTable<T> table = new HashTable<>(length, (flags & SNAPSHOT_BALANCED) != 0, (flags & SNAPSHOT_ADAPTIVE) != 0);
+        table.powerOfTwo = powerOfTwo;
+        Object[] block = new Object[16];
+        int loaded = 0;
+        int previous = -1;
+        while (loaded < size) {
+            buffer = fill(channel, buffer, BLOCK_HEADER);
+            int bucket = buffer.getInt();
+            int count = buffer.getInt();
+            int bytes = buffer.getInt();
+            if (bucket <= previous || bucket >= length || count <= 0 || count > size - loaded || bytes < 0)
+                throw new IOException("bad snapshot block for bucket " + bucket);
+
+            buffer = fill(channel, buffer, bytes);
+            ByteBuffer values = buffer.slice(buffer.position(), bytes);//a bad count can't read past the block
+            if (block.length < count)
+                block = new Object[Math.max(count, block.length * 2)];
+            try {
+                for (int j = 0; j < count; j++)
+                    block[j] = codec.read(values);
+            } catch (RuntimeException e) {//BufferUnderflowException, or garbage the codec rejects
+                throw new IOException("snapshot block for bucket " + bucket + " does not decode as " + count + " values in " + bytes + " bytes", e);
+            }
+            if (values.hasRemaining())
+                throw new IOException("snapshot block for bucket " + bucket + " is not " + bytes + " bytes");
+            buffer.position(buffer.position() + bytes);
+
+            Chain<T> chain = table.newChain();
+            chain.load(block, 0, count);
+            table.storage[bucket] = chain;
+            loaded += count;
+            previous = bucket;
+        }
+        table.size = size;
+        return table;
+    }
+
+    /**
+     * Makes room for needed more bytes, flushing buffer to channel or
+     * replacing it by a bigger one
+     *
+     * @param channel the channel
+     * @param buffer the buffer, in write mode
+     * @param needed the byte count
+     * @return the buffer to go on with
+     * @throws IOException if writing fails
+     */
+    private static ByteBuffer room(WritableByteChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() >= needed)
+            return buffer;
+        flush(channel, buffer);
+        return buffer.capacity() >= needed ? buffer : ByteBuffer.allocate(needed);
+    }
+
+    /**
+     * Writes out and clears buffer
+     *
+     * @param channel the channel
+     * @param buffer the buffer, in write mode
+     * @throws IOException if writing fails
+     */
+    private static void flush(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Reads from channel until buffer has needed unread bytes,
+     * replacing it by a bigger one if it can't hold them
+     *
+     * @param channel the channel
+     * @param buffer the buffer, in read mode
+     * @param needed the byte count
+     * @return the buffer to go on with, in read mode
+     * @throws IOException if reading fails or the channel ends first
+     */
+    private static ByteBuffer fill(ReadableByteChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() >= needed)
+            return buffer;
+        if (buffer.capacity() < needed)
+            buffer = ByteBuffer.allocate(needed).put(buffer);
+        else
+            buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0)
+                throw new EOFException("snapshot ends early");
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Unchecked cast of a value taken out of a chain's toArray
+     *
+     * @param value the value
+     * @return the value as a T
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    // Returns the average tree height.
+    // - If nonEmptyOnly is true, only consider non-empty trees;
+    // otherwise all trees are considered.
+    // - Returns -1.0 if all trees are empty but only non-empty
+    // trees are considered
+    /**
+     * Avg tree height.
+     *
+     * @param nonEmptyOnly if nonEmptyOnly is true, only consider non-empty trees
+     * @return the average tree height
+     */
+
+    public double avgTreeHeight(boolean nonEmptyOnly) {
+        countStats();
+        if (nonEmptyOnly)
+            return nonEmpty == 0 ? -1 : (double) totalHeight / nonEmpty;
+        return (double) (totalHeight - (storage.length - nonEmpty)) / storage.length;//empty trees have height -1
+    }
+
+    //
+    //  If nonEmptyOnly is true, only consider non-empty trees;
+    // otherwise all trees are considered.
+    // Returns 0.0 if all trees are empty but only non-empty
+    /**
+     * Return the average tree size.
+     *
+     * @param nonEmptyOnly if nonEmptyOnly is true, only consider non-empty trees
+     * @return the average tree size
+     */
+    // trees are considered
+    public double avgTreeSize(boolean nonEmptyOnly) {
+        countStats();
+        if (nonEmptyOnly)
+            return nonEmpty == 0 ? 0 : (double) size / nonEmpty;
+        return (double) size / storage.length;
+    }
+
+    // Returns the average number of leaves.
+    // - If nonEmptyOnly is true, only consider non-empty trees;
+    // otherwise all trees are considered.
+    // - Return 0.0 if all trees are empty but only non-empty
+    /**
+     * Avg number of  leaves.
+     *
+     * @param nonEmptyOnly if nonEmptyOnly is true, only consider non-empty trees
+     * @return the average number of leaves
+     */
+    // trees are considered
+    public double avgNumLeaves(boolean nonEmptyOnly) {
+        countStats();
+        if (nonEmptyOnly)
+            return nonEmpty == 0 ? 0 : (double) totalLeaves / nonEmpty;
+        return (double) totalLeaves / storage.length;
+    }
+
+    /**
+     * Min and max of the tree size
+     *
+     * @return the pair
+     */
+    // Return the min and max tree size as a pair.
+    public Pair<Integer, Integer> minAndMaxTreeSize() {
+        countStats();
+        return new Pair<Integer, Integer>(sizes.min(), sizes.max());
+    }
+
+    /**
+     * Min and max of the tree height
+     *
+     * @return the pair
+     */
+    // Return the min and max tree height as a pair.
+    public Pair<Integer, Integer> minAndMaxTreeHeight() {
+        countStats();
+        return new Pair<Integer, Integer>(heights.min() - 1, heights.max() - 1);
+    }
+
+    /**
+     * Min and max of num leaves
+     *
+     * @return the pair
+     */
+    // Return the min and max number of leaves in trees as a pair.
+    public Pair<Integer, Integer> minAndMaxNumLeaves() {
+        countStats();
+        return new Pair<Integer, Integer>(leaves.min(), leaves.max());
+    }
+
+    /**
+     * Expected false-positive rate of the Bloom filter: the chance that
+     * contains has to search a chain for a value not in the table
+     * Computed from the filter's bits; HashTableMetrics has the rate
+     * actually observed by contains
+     *
+     * @return the rate, 0 to 1; 1 without a filter
+     */
+    // O(M): the filter has about M / 50 blocks
+    public double bloomFalsePositiveRate() {
+        return bloom == null ? 1 : bloom.falsePositiveRate();
+    }
+
+    /**
+     * Makes the running chain statistics valid: finishes a pending rehash
+     * and, if the statistics were dropped, recounts them
+     */
+    // O(1) when valid, O(M) after a rehash: chain sizes,
+    // heights and leaves are all O(1)
+    private void countStats() {
+        finishRehash();
+        if (statsValid)
+            return;
+
+        nonEmpty = 0;
+        totalHeight = 0;
+        totalLeaves = 0;
+        sizes = new Histogram();
+        heights = new Histogram();
+        leaves = new Histogram();
+        for (int i = 0; i < storage.length; i++)
+            track(storage[i]);
+        statsValid = true;
+    }
+
+    /**
+     * Adds the statistics of one bucket to the running ones
+     *
+     * @param chain the chain of the bucket, may be null
+     */
+    private void track(Chain<T> chain) {
+        int chainSize = chain == null ? 0 : chain.size();
+        int chainHeight = chainSize == 0 ? -1 : chain.height();
+        int chainLeaves = chainSize == 0 ? 0 : chain.numLeaves();
+        if (chainSize > 0) {
+            nonEmpty++;
+            totalHeight += chainHeight;
+        }
+        totalLeaves += chainLeaves;
+        sizes.add(chainSize);
+        heights.add(chainHeight + 1);
+        leaves.add(chainLeaves);
+    }
+
+    /**
+     * Takes the statistics of one bucket out of the running ones
+     *
+     * @param chain the chain of the bucket, may be null
+     */
+    private void untrack(Chain<T> chain) {
+        int chainSize = chain == null ? 0 : chain.size();
+        int chainHeight = chainSize == 0 ? -1 : chain.height();
+        int chainLeaves = chainSize == 0 ? 0 : chain.numLeaves();
+        if (chainSize > 0) {
+            nonEmpty--;
+            totalHeight -= chainHeight;
+        }
+        totalLeaves -= chainLeaves;
+        sizes.remove(chainSize);
+        heights.remove(chainHeight + 1);
+        leaves.remove(chainLeaves);
+    }
+
+    /**
+     * Number of buckets for each value of one chain statistic
+     * min and max are only lowered/raised on add and walked back lazily:
+     * an add or remove moves one chain by a step or so, which keeps
+     * the walks short
+     */
+    private static class Histogram {
+        private int[] counts = new int[8];
+        private int min = Integer.MAX_VALUE;//no bucket below it
+        private int max = -1;//no bucket above it
+
+        void add(int value) {
+            if (value >= counts.length)
+                counts = Arrays.copyOf(counts, Math.max(value + 1, counts.length * 2));
+            counts[value]++;
+            if (value < min)
+                min = value;
+            if (value > max)
+                max = value;
+        }
+
+        void remove(int value) {
+            counts[value]--;
+        }
+
+        int min() {
+            while (counts[min] == 0)
+                min++;
+            return min;
+        }
+
+        int max() {
+            while (counts[max] == 0)
+                max--;
+            return max;
+        }
+    }
+
+
+    /**
+     * All chain statistics in one string, for testing
+     *
+     * @return the statistics
+     */
+    private String stats() {
+        return avgTreeHeight(true) + " " + avgTreeHeight(false) + " " + avgTreeSize(true) + " "
+                + avgTreeSize(false) + " " + avgNumLeaves(true) + " " + avgNumLeaves(false) + " "
+                + minAndMaxTreeSize() + " " + minAndMaxTreeHeight() + " " + minAndMaxNumLeaves();
+    }
+
+    /**
+     * The same statistics as stats(), counted bucket by bucket, for testing
+     *
+     * @param table the table
+     * @return the statistics
+     */
+    private static String scanStats(HashTable<?> table) {
+        int count = 0, heights = 0, leaves = 0;
+        int minSize = Integer.MAX_VALUE, maxSize = -1, minHeight = Integer.MAX_VALUE, maxHeight = -2;
+        int minLeaves = Integer.MAX_VALUE, maxLeaves = -1, allHeights = 0, allLeaves = 0;
+        for (Chain<?> chain : table.storage) {
+            int size = chain == null ? 0 : chain.size();
+            int height = chain == null ? -1 : chain.height();
+            int leaf = chain == null ? 0 : chain.numLeaves();
+            if (size > 0) {
+                count++;
+                heights += height;
+                leaves += leaf;
+            }
+            allHeights += height;
+            allLeaves += leaf;
+            minSize = Math.min(minSize, size);
+            maxSize = Math.max(maxSize, size);
+            minHeight = Math.min(minHeight, height);
+            maxHeight = Math.max(maxHeight, height);
+            minLeaves = Math.min(minLeaves, leaf);
+            maxLeaves = Math.max(maxLeaves, leaf);
+        }
+        int length = table.storage.length;
+        return (count == 0 ? -1 : (double) heights / count) + " " + (double) allHeights / length + " "
+                + (count == 0 ? 0 : (double) table.size / count) + " " + (double) table.size / length + " "
+                + (count == 0 ? 0 : (double) leaves / count) + " " + (double) allLeaves / length + " "
+                + new Pair<>(minSize, maxSize) + " " + new Pair<>(minHeight, maxHeight) + " "
+                + new Pair<>(minLeaves, maxLeaves);
+    }
+
+    //--------------------------------
+    // Main Method For Your Testing 
+    //--------------------------------
+
+    public static void main(String[] args) {
+        BufferedWriter writer=null;
+        boolean debug=false;
+
+        try{
+            if (args.length==1 && args[0].equals("-debug")){
+                writer = new BufferedWriter(new FileWriter(new File("debug.txt")));
+                debug = true;
+            }
+
+            HashTable<String> ht1 = new HashTable<>(10);
+
+            //empty hash table
+            if(ht1.getLength() == 10 && ht1.size() == 0 && ht1.toString().equals("")) {
+                System.out.println("Yay 1");
+            }
+
+            //add
+            if (ht1.add("a") && ht1.add("c") && ht1.add("computer") && !ht1.add("c")
+                    && ht1.getLength() == 10 && ht1.size() == 3){
+                System.out.println("Yay 2");
+            }
+            // hashCode() references:
+            // "a": 97, "c": 99, "computer": -599163109
+
+
+            //basic features of hash table
+            if(ht1.contains("a") && ht1.contains("computer") && ht1.contains("c") && !ht1.contains("cs")
+                    && ht1.toString().equals("a c computer")
+                    && ht1.toStringDebug(false).equals("[0]: null\n[1]: null\n[2]: null\n[3]: null\n[4]: null\n[5]: null\n[6]: null\n[7]: a\n[8]: null\n[9]: c computer")) {
+                System.out.println("Yay 3");
+            }
+            //System.out.println(ht1.toStringDebug(true));
+
+            if (debug){
+                writer.write("====================================================="+System.getProperty("line.separator"));
+                writer.write("ht1 after add(\"a\"), add(\"c\"), add(\"computer\")"+System.getProperty("line.separator"));
+                writer.write("-----------------------------------------------------"+System.getProperty("line.separator"));
+                writer.write(ht1.toStringDebug(true)+System.getProperty("line.separator")+System.getProperty("line.separator"));
+            }
+
+            //remove
+            if (!ht1.remove("data") && ht1.remove("c") && ht1.size() == 2
+                    && !ht1.contains("c")  && ht1.contains("computer")){
+                System.out.println("Yay 4");
+
+            }
+
+            //rehash
+            HashTable<Integer> ht2 = new HashTable<>(5);
+            ht2.add(105);
+            ht2.add(26);
+            ht2.add(11);
+            if (ht2.getLength()==5 && ht2.size()==3 && ht2.add(55) && ht2.getLength()==10
+                    && ht2.add(5) && ht2.add(-11) && ht2.add(31) && ht2.getLength()==10 && ht2.size()==7){
+                System.out.println("Yay 5");
+            }
+
+            //System.out.println(ht2.toString());
+            //System.out.println(ht2.toStringDebug(true));
+            if (debug){
+                writer.write("====================================================="+System.getProperty("line.separator"));
+                writer.write("ht2 after adding these in order: 105, 26, 11, 55, 5, -11, 31"+System.getProperty("line.separator"));
+                writer.write("-----------------------------------------------------"+System.getProperty("line.separator"));
+                writer.write(ht2.toStringDebug(true)+System.getProperty("line.separator")+System.getProperty("line.separator"));
+            }
+
+            if (ht2.toString().equals("-11 11 31 5 55 105 26") && ht2.size() == 7 &&
+                    ht2.toStringDebug(false).equals("[0]: null\n[1]: -11 11 31\n[2]: null\n[3]: null\n[4]: null\n[5]: 5 55 105\n[6]: 26\n[7]: null\n[8]: null\n[9]: null")) {
+                System.out.println("Yay 6");
+            }
+
+            //tree features from hash table
+            if (ht2.avgTreeSize(false)==0.7 && ht2.avgTreeSize(true)==7.0/3 &&
+                    ht2.avgTreeHeight(false)==-4.0/10 && ht2.avgTreeHeight(true)==1 &&
+                    ht2.avgNumLeaves(false)==0.4 && ht2.avgNumLeaves(true)==4.0/3){
+                System.out.println("Yay 7");
+            }
+
+            //more tree features
+            if (ht2.minAndMaxTreeSize().toString().equals("<0,3>") &&
+                    ht2.minAndMaxTreeHeight().toString().equals("<-1,2>") &&
+                    ht2.minAndMaxNumLeaves().toString().equals("<0,2>")){
+                System.out.println("Yay 8");
+            }
+
+            //more rehash
+            if(ht2.rehash(2) == false && ht2.size() == 7 && ht2.getLength() == 10) {
+                System.out.println("Yay 9");
+            }
+
+            if(ht2.rehash(11) == true && ht2.size() == 7 && ht2.getLength() == 11) {
+                System.out.println("Yay 10");
+            }
+            //System.out.println(ht2.toString());
+            //System.out.println(ht2.toStringDebug(true));
+
+            //balanced chains under hash flooding:
+            //"Aa" and "BB" share a hash code, so all 1024 strings land in one bucket
+            HashTable<String> ht4 = new HashTable<>(10, true);
+            String[] colliding = {""};
+            for (int i = 0; i < 10; i++) {
+                String[] next = new String[colliding.length * 2];
+                for (int j = 0; j < colliding.length; j++) {
+                    next[2 * j] = colliding[j] + "Aa";
+                    next[2 * j + 1] = colliding[j] + "BB";
+                }
+                colliding = next;
+            }
+            boolean ok = true;
+            for (int i = 0; i < colliding.length; i++)
+                ok = ok && ht4.add(colliding[i]);
+            if (ok && ht4.size() == 1024 && ht4.minAndMaxTreeSize().second == 1024
+                    && ht4.minAndMaxTreeHeight().second == 10 && ht4.contains(colliding[1023])
+                    && ht4.remove(colliding[0]) && !ht4.contains(colliding[0]) && ht4.size() == 1023){
+                System.out.println("Yay 11");
+            }
+
+            //adaptive chains hold the same values in the same buckets
+            HashTable<Integer> ht5 = new HashTable<>(5, false, true);
+            int[] values = {105, 26, 11, 55, 5, -11, 31};
+            for (int i = 0; i < values.length; i++)
+                ht5.add(values[i]);
+            if (ht5.toString().equals("-11 11 31 5 55 105 26") && ht5.getLength() == 10
+                    && ht5.toStringDebug(false).equals("[0]: null\n[1]: -11 11 31\n[2]: null\n[3]: null\n[4]: null\n[5]: 5 55 105\n[6]: 26\n[7]: null\n[8]: null\n[9]: null")
+                    && ht5.minAndMaxTreeSize().toString().equals("<0,3>")){
+                System.out.println("Yay 12");
+            }
+
+            //and grow into trees and back without losing values
+            ht5 = new HashTable<>(5, true, true);
+            HashTable<Integer> plain = new HashTable<>(5);
+            Random rnd = new Random(1);
+            ok = true;
+            for (int i = 0; i < 20000; i++) {
+                int v = rnd.nextInt(2000) * 1000;//few distinct buckets per length
+                if (rnd.nextInt(3) == 0)
+                    ok = ok && ht5.remove(v) == plain.remove(v);
+                else
+                    ok = ok && ht5.add(v) == plain.add(v);
+                ok = ok && ht5.contains(v) == plain.contains(v);
+            }
+            if (ok && ht5.size() == plain.size() && ht5.getLength() == plain.getLength()){
+                System.out.println("Yay 13");
+            }
+
+            //incremental rehash: same contents as a table that rehashes at once
+            HashTable<Integer> ht6 = new HashTable<>(5);
+            ht6.setIncrementalRehash(true);
+            plain = new HashTable<>(5);
+            ok = ht6.isIncrementalRehash();
+            boolean sawRehashing = false;
+            for (int i = 0; i < 5000; i++) {
+                int v = rnd.nextInt(100000);
+                ok = ok && ht6.add(v) == plain.add(v);
+                sawRehashing = sawRehashing || ht6.isRehashing();
+                if (i % 3 == 0) {
+                    v = rnd.nextInt(100000);
+                    ok = ok && ht6.remove(v) == plain.remove(v);
+                }
+                ok = ok && ht6.contains(v) == plain.contains(v) && ht6.size() == plain.size();
+            }
+            if (ok && sawRehashing && ht6.getLength() == plain.getLength()
+                    && ht6.toString().equals(plain.toString()) && !ht6.isRehashing()){
+                System.out.println("Yay 14");
+            }
+
+            //power-of-two indexing keeps the values and rounds the length
+            HashTable<Integer> ht7 = new HashTable<>(5);
+            for (int i = 0; i < values.length; i++)
+                ht7.add(values[i]);
+            ht7.setPowerOfTwoIndexing(true);
+            ok = ht7.isPowerOfTwoIndexing() && ht7.getLength() == 16 && ht7.size() == 7;
+            for (int i = 0; i < values.length; i++)
+                ok = ok && ht7.contains(values[i]);
+            for (int i = 0; i < 100; i++)
+                ok = ok && ht7.add(i * 20);//ht3-style clustering
+            if (ok && !ht7.contains(6) && ht7.getLength() == 256 && ht7.size() == 107
+                    && ht7.minAndMaxTreeSize().second <= 3 && !ht7.rehash(1)
+                    && ht7.rehash(300) && ht7.getLength() == 512){
+                System.out.println("Yay 15");
+            }
+
+            //parallel rehash builds exactly the table the source one does
+            int threshold = parallelRehashThreshold;
+            HashTable<Integer> source = new HashTable<>(5);
+            for (int i = 0; i < 30000; i++)
+                source.add(rnd.nextInt());
+            Object[] added = source.toArray();
+            parallelRehashThreshold = 1000;
+            HashTable<Integer> parallel = new HashTable<>(5);
+            for (int i = 0; i < added.length; i++)
+                parallel.add((Integer) added[i]);
+            HashTable<Integer> serial = new HashTable<>(5);
+            parallelRehashThreshold = Integer.MAX_VALUE;
+            for (int i = 0; i < added.length; i++)
+                serial.add((Integer) added[i]);
+            ok = parallel.toStringDebug(true).equals(serial.toStringDebug(true));
+            parallelRehashThreshold = 1000;
+            ok = ok && parallel.rehash(100003) && serial.rehash(100003) && parallel.size() == serial.size()
+                    && parallel.toStringDebug(false).equals(serial.toStringDebug(false));
+            parallelRehashThreshold = threshold;
+            if (ok){
+                System.out.println("Yay 16");
+            }
+
+            //iteration follows toArray order without a copy, and fails fast
+            ok = true;
+            Object[] expected = parallel.toArray();
+            int n = 0;
+            for (Integer v : parallel)
+                ok = ok && v.equals(expected[n++]);
+            expected = ht5.toArray();
+            n = 0;
+            for (Integer v : ht5)
+                ok = ok && v.equals(expected[n++]);
+            HashTable<Integer> growing = new HashTable<>(5);
+            growing.setIncrementalRehash(true);
+            for (int i = 0; i < 1000; i++)
+                growing.add(i);
+            n = 0;
+            for (Integer v : growing)
+                n++;//finishes the pending rehash first
+            ok = ok && n == 1000 && !growing.isRehashing();
+            java.util.Iterator<Integer> it = growing.iterator();
+            it.next();
+            growing.remove(500);
+            try {
+                it.next();
+                ok = false;
+            } catch (java.util.ConcurrentModificationException e) {
+                // expected
+            }
+            java.util.Spliterator<Integer> whole = parallel.spliterator();
+            ok = ok && whole.hasCharacteristics(java.util.Spliterator.SIZED | java.util.Spliterator.DISTINCT
+                    | java.util.Spliterator.NONNULL) && whole.getExactSizeIfKnown() == parallel.size();
+            java.util.Spliterator<Integer> half = whole.trySplit();
+            long[] counted = new long[1];
+            half.forEachRemaining(v -> counted[0]++);
+            while (whole.tryAdvance(v -> counted[0]++));
+            ok = ok && !half.hasCharacteristics(java.util.Spliterator.SIZED) && counted[0] == parallel.size()
+                    && java.util.stream.StreamSupport.stream(parallel.spliterator(), true)
+                        .mapToLong(Integer::longValue).sum()
+                        == java.util.Arrays.stream(expected = parallel.toArray()).mapToLong(v -> (Integer) v).sum();
+            if (ok){
+                System.out.println("Yay 17");
+            }
+
+            //bulk load: one rehash, then the same chains as adds into a table that long
+            java.util.List<Integer> batch = new java.util.ArrayList<>();
+            for (int i = 0; i < 50000; i++)
+                batch.add(rnd.nextInt(40000));
+            batch.add(null);
+            HashTable<Integer> bulk = new HashTable<>(5);
+            bulk.add(7);
+            int bulkAdded = bulk.addAll(batch);
+            HashTable<Integer> oneByOne = withExpectedSize(50002);
+            oneByOne.add(7);
+            int one = 0;
+            for (Integer v : batch) {
+                if (oneByOne.add(v))
+                    one++;
+            }
+            ok = bulkAdded == one && bulk.size() == oneByOne.size() && bulk.getLength() == oneByOne.getLength()
+                    && bulk.getLength() == 50002 * 5 / 4 + 1
+                    && bulk.toStringDebug(true).equals(oneByOne.toStringDebug(true))
+                    && bulk.addAll(batch) == 0 && bulk.addAll(java.util.Arrays.asList(-1, -2)) == 2;
+            HashTable<Integer> balancedBulk = new HashTable<>(5, true, true);
+            balancedBulk.setPowerOfTwoIndexing(true);
+            ok = ok && balancedBulk.addAll(batch) == one + (batch.contains(7) ? 1 : 0) && balancedBulk.contains(7) == batch.contains(7)
+                    && Integer.bitCount(balancedBulk.getLength()) == 1;
+            if (ok){
+                System.out.println("Yay 18");
+            }
+
+            //running chain statistics agree with a full scan through random work
+            ok = true;
+            for (int kind = 0; kind < 3; kind++) {
+                HashTable<Integer> tracked = new HashTable<>(5, kind == 1, kind == 2);
+                for (int i = 0; i < 20000; i++) {
+                    int v = rnd.nextInt(3000) * 16;//collides often
+                    if (rnd.nextInt(3) > 0)
+                        tracked.add(v);
+                    else
+                        tracked.remove(v);
+                    if (i % 500 == 0)
+                        ok = ok && tracked.stats().equals(scanStats(tracked));
+                }
+                ok = ok && tracked.stats().equals(scanStats(tracked));
+            }
+            if (ok){
+                System.out.println("Yay 19");
+            }
+
+            //opt-in metrics: compare counts, probe depths, rehash timing and JMX
+            HashTable<Integer> measured = new HashTable<>(20);
+            ok = measured.getMetrics() == null;
+            measured.setMetricsEnabled(true);
+            for (int v = 0; v < 200; v += 20)
+                measured.add(v);//one sorted chain in bucket 0
+            HashTableMetrics m = measured.getMetrics();
+            ok = ok && m.getAddCount() == 10 && m.getAvgAddCompares() == 4.5 //0 + 1 + ... + 9 compares
+                    && measured.contains(180) && measured.contains(0) && !measured.contains(1)
+                    && !measured.add(0) && measured.remove(20) && !measured.remove(21)
+                    && m.getContainsCount() == 3 && m.getAvgContainsCompares() == 11 / 3.0
+                    && m.getMaxProbeDepth() == 10 && m.getProbeDepthHistogram()[10] == 1
+                    && m.getProbeDepthHistogram()[0] == 1 && m.getRemoveCount() == 2
+                    && m.getAddCount() == 11 && m.getRehashCount() == 0;
+            for (int v = 1; v <= 8; v++)
+                measured.add(v);//the 16th value reaches 80% of 20
+            ok = ok && m.getRehashCount() == 1 && m.getLastRehashValues() == 16 && m.getRehashNanos() > 0;
+            try {
+                javax.management.ObjectName name = m.register("metrics test");
+                javax.management.MBeanServer server = java.lang.management.ManagementFactory.getPlatformMBeanServer();
+                ok = ok && server.getAttribute(name, "ContainsCount").equals(3L)
+                        && server.getAttribute(name, "RehashCount").equals(1L);
+                server.invoke(name, "reset", null, null);
+                ok = ok && m.getContainsCount() == 0;
+                m.unregister();
+                ok = ok && !server.isRegistered(name);
+            } catch (javax.management.JMException e) {
+                ok = false;
+            }
+
+            HashTable<Integer> stepped = new HashTable<>(5);
+            stepped.setIncrementalRehash(true);
+            stepped.setMetricsEnabled(true);
+            for (int v = 0; v < 100; v++)
+                stepped.add(v);
+            stepped.toArray();//finishes the move in progress
+            ok = ok && !stepped.isRehashing() && stepped.getMetrics().getRehashCount() == 5
+                    && stepped.getMetrics().getLastRehashValues() > 0;
+            stepped.setMetricsEnabled(false);
+            ok = ok && stepped.getMetrics() == null && stepped.contains(99);
+            if (ok){
+                System.out.println("Yay 20");
+            }
+
+            //empty chains are released; shrinking is off by default, then follows the low-water mark
+            ok = true;
+            for (int kind = 0; kind < 4; kind++) {
+                HashTable<Integer> purged = new HashTable<>(5, kind == 1, kind == 2);
+                purged.setIncrementalRehash(kind == 3);
+                purged.setPowerOfTwoIndexing(kind == 3);
+                for (int v = 0; v < 10000; v++)
+                    purged.add(v * 7);
+                int grown = purged.getLength();
+                for (int v = 0; v < 10000; v += 2)
+                    purged.remove(v * 7);
+                ok = ok && purged.getLength() == grown;
+
+                purged.setShrinkLoad(10);
+                purged.setMetricsEnabled(true);
+                for (int v = 1; v < 9800; v += 2)
+                    purged.remove(v * 7);//100 left
+                ok = ok && purged.size() == 100 && purged.getLength() < grown / 16
+                        && purged.getMetrics().getRehashCount() > 0;
+                purged.finishRehash();
+                int nonNull = 0;
+                for (int i = 0; i < purged.storage.length; i++) {
+                    if (purged.storage[i] != null)
+                        ok = ok && purged.storage[i].size() > 0 && ++nonNull > 0;
+                }
+                for (int v = 9801; v < 10000; v += 2)
+                    ok = ok && purged.contains(v * 7) && !purged.contains(v * 7 - 7);
+                ok = ok && nonNull <= 100 && purged.stats().equals(scanStats(purged));
+
+                //churn around the mark never resizes
+                purged.getMetrics().reset();
+                int length = purged.getLength();
+                for (int i = 0; i < 1000; i++) {
+                    purged.add(-1);
+                    purged.remove(-1);
+                    purged.remove(9999 * 7);
+                    purged.add(9999 * 7);
+                }
+                ok = ok && purged.getLength() == length && purged.getMetrics().getRehashCount() == 0;
+
+                for (int v = 9801; v < 10000; v += 2)
+                    purged.remove(v * 7);
+                ok = ok && purged.size() == 0 && purged.getLength() == minLength;
+            }
+            try {
+                new HashTable<Integer>(5).setShrinkLoad(21);
+                ok = false;
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            if (ok){
+                System.out.println("Yay 21");
+            }
+
+            //sorted iteration merges the chains in ascending order, for every chain kind
+            ok = !new HashTable<Integer>(5).sortedIterator().hasNext();
+            for (int kind = 0; kind < 4; kind++) {
+                HashTable<Integer> merged = new HashTable<>(5, kind == 1, kind == 2);
+                merged.setPowerOfTwoIndexing(kind == 3);
+                merged.setIncrementalRehash(kind == 3);
+                for (int i = 0; i < 20000; i++)
+                    merged.add(rnd.nextInt(3000) * (kind + 1) * 16);//colliding, deep chains
+                Object[] ordered = merged.toArray();
+                Arrays.sort(ordered);
+                int i = 0;
+                for (Iterator<Integer> sorted = merged.sortedIterator(); sorted.hasNext(); )
+                    ok = ok && i < ordered.length && sorted.next().equals(ordered[i++]);
+                ok = ok && i == ordered.length;
+
+                Iterator<Integer> stale = merged.sortedIterator();
+                stale.next();
+                merged.add(-1);
+                try {
+                    stale.next();
+                    ok = false;
+                } catch (ConcurrentModificationException e) {
+                    // expected
+                }
+            }
+            if (ok){
+                System.out.println("Yay 22");
+            }
+
+            //ordered queries, per chain and through the sorted index, for every chain kind
+            ok = new HashTable<Integer>(5).first() == null && new HashTable<Integer>(5).floor(3) == null;
+            for (int kind = 0; kind < 4; kind++) {
+                HashTable<Integer> ordered = new HashTable<>(5, kind == 1, kind == 2);
+                ordered.setIncrementalRehash(kind == 3);
+                java.util.TreeSet<Integer> reference = new java.util.TreeSet<>();
+                for (int i = 0; i < 3000; i++) {
+                    int v = rnd.nextInt(10000) * 16;//colliding, deep chains
+                    ordered.add(v);
+                    reference.add(v);
+                }
+                for (int pass = 0; pass < 2; pass++) {
+                    ordered.setSortedIndex(pass == 1);
+                    ok = ok && ordered.isSortedIndex() == (pass == 1)
+                            && ordered.first().equals(reference.first()) && ordered.last().equals(reference.last());
+                    for (int i = 0; i < 200; i++) {
+                        int v = rnd.nextInt(170000) - 5000;
+                        int w = v + rnd.nextInt(3000);
+                        java.util.List<Integer> inRange = new java.util.ArrayList<>();
+                        ordered.forEachInRange(v, w, inRange::add);
+                        if (pass == 0)
+                            java.util.Collections.sort(inRange);//ascending per chain only
+                        ok = ok && java.util.Objects.equals(ordered.floor(v), reference.floor(v))
+                                && java.util.Objects.equals(ordered.ceiling(v), reference.ceiling(v))
+                                && inRange.equals(new java.util.ArrayList<>(reference.subSet(v, w)));
+                    }
+                    for (int i = 0; i < 1000; i++) {//the index follows add, addAll and remove
+                        int v = rnd.nextInt(10000) * 16;
+                        ok = ok && ordered.remove(v) == reference.remove(v);
+                        ordered.addAll(java.util.Arrays.asList(v + 1, v + 2));
+                        reference.add(v + 1);
+                        reference.add(v + 2);
+                    }
+                    ok = ok && ordered.size() == reference.size() && ordered.first().equals(reference.first())
+                            && java.util.Objects.equals(ordered.floor(-1), null)
+                            && ordered.ceiling(reference.last()).equals(reference.last());
+                }
+                ok = ok && ordered.newEmpty(10).isSortedIndex();
+            }
+            if (ok){
+                System.out.println("Yay 23");
+            }
+
+            //a snapshot restores the same buckets and chain shapes, without a rehash
+            for (int kind = 0; kind < 4; kind++) {
+                HashTable<Integer> saved = new HashTable<>(5, kind == 1, kind == 2);
+                saved.setPowerOfTwoIndexing(kind == 3);
+                saved.setIncrementalRehash(kind == 3);
+                for (int i = 0; i < 20000; i++)
+                    saved.add(rnd.nextInt(50000) * 16);//colliding, deep chains
+                for (int i = 0; i < 2000; i++)
+                    saved.remove(rnd.nextInt(50000) * 16);
+                java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+                saved.writeSnapshot(java.nio.channels.Channels.newChannel(bytes), SnapshotCodec.INTEGER);
+                HashTable<Integer> restored = HashTable.readSnapshot(java.nio.channels.Channels.newChannel(
+                        new java.io.ByteArrayInputStream(bytes.toByteArray())), SnapshotCodec.INTEGER);
+                ok = ok && restored.size() == saved.size() && restored.getLength() == saved.getLength()
+                        && restored.isPowerOfTwoIndexing() == (kind == 3)
+                        && restored.toStringDebug(true).equals(saved.toStringDebug(true))
+                        && Arrays.equals(restored.toArray(), saved.toArray())
+                        && restored.add(-16) && restored.contains(-16) && !restored.add((Integer) restored.toArray()[7]);
+            }
+            HashTable<String> words = new HashTable<>(5, false, true);
+            StringBuilder longWord = new StringBuilder("\u00e9\ud83c\udf32");
+            while (longWord.length() < 100000)
+                longWord.append(longWord);//one block bigger than the buffer
+            words.add(longWord.toString());
+            for (int i = 0; i < 5000; i++)
+                words.add("w" + rnd.nextInt(100000) + "\u00df");
+            java.io.ByteArrayOutputStream bytes = new java.io.ByteArrayOutputStream();
+            words.writeSnapshot(java.nio.channels.Channels.newChannel(bytes), SnapshotCodec.STRING);
+            byte[] image = bytes.toByteArray();
+            ok = ok && HashTable.readSnapshot(java.nio.channels.Channels.newChannel(
+                    new java.io.ByteArrayInputStream(image)), SnapshotCodec.STRING).toString().equals(words.toString());
+            for (int cut : new int[] {0, 3, image.length / 2, -1, -2}) {//truncated or garbled
+                byte[] bad = Arrays.copyOf(image, cut >= 0 && cut != 3 ? cut : image.length);
+                if (cut == 3)
+                    bad[3] ^= 1;
+                else if (cut == -1)
+                    bad[SNAPSHOT_HEADER + 7]++;//one more value than the first block holds
+                else if (cut == -2)
+                    bad[SNAPSHOT_HEADER + 11]--;//the first block a byte short
+                try {
+                    HashTable.readSnapshot(java.nio.channels.Channels.newChannel(
+                            new java.io.ByteArrayInputStream(bad)), SnapshotCodec.STRING);
+                    ok = false;
+                } catch (IOException e) {
+                    // expected
+                }
+            }
+            if (ok){
+                System.out.println("Yay 24");
+            }
+
+            //snapshots: O(1) and untouched by later writes
+            ok = true;
+            for (int kind = 0; kind < 4; kind++) {
+                HashTable<Integer> live = new HashTable<>(5, kind == 1, false);
+                live.setIncrementalRehash(kind == 2);
+                for (int i = 0; i < 3000; i++)
+                    live.add(rnd.nextInt(20000));
+                if (kind != 3)
+                    live.setPathCopying(true);
+                Object[] before = live.toArray();
+                String shape = live.toStringDebug(true);
+                HashTable<Integer> snap = live.snapshot();
+                ok = ok && snap.isReadOnly() && snap.snapshot() == snap
+                        && (kind == 3 || snap.storage == live.storage);
+
+                int removed = 0;
+                for (Object v : before) {
+                    if (((Integer) v) % 3 == 0 && live.remove((Integer) v))
+                        removed++;
+                }
+                ArrayList<Integer> more = new ArrayList<>();
+                for (int i = 0; i < 5000; i++)
+                    more.add(20000 + i);
+                live.add(-1);
+                live.addAll(more);//grows, so kind 2 rehashes incrementally
+                for (int i = 0; i < 10; i++)
+                    live.remove(20000 + i);
+                HashTable<Integer> snap2 = live.snapshot();
+                live.add(-2);
+
+                ok = ok && Arrays.equals(snap.toArray(), before) && snap.toStringDebug(true).equals(shape)
+                        && snap.size() == before.length && !snap.contains(-1)
+                        && live.size() == before.length - removed + 1 + 4990 + 1
+                        && snap2.size() == live.size() - 1 && snap2.contains(-1) && !snap2.contains(-2)
+                        && !snap2.contains(20005) && snap2.contains(20010);
+                for (Object v : before)
+                    ok = ok && live.contains((Integer) v) == (((Integer) v) % 3 != 0);
+                try {
+                    snap.remove((Integer) before[0]);
+                    ok = false;
+                } catch (UnsupportedOperationException e) {
+                    // expected
+                }
+            }
+            HashTable<Integer> shared = new HashTable<>(101);
+            shared.setPathCopying(true);
+            for (int i = 0; i < 60; i++)
+                shared.add(i);
+            HashTable<Integer> view = shared.snapshot();
+            shared.add(160);//copies the array and the chain of 59, nothing else
+            int same = 0;
+            for (int i = 0; i < shared.storage.length; i++) {
+                if (shared.storage[i] != null && shared.storage[i] == view.storage[i])
+                    same++;
+            }
+            ok = ok && shared.storage != view.storage && same == 59 && !view.contains(160);
+            if (ok){
+                System.out.println("Yay 25");
+            }
+
+            //Bloom filter: no false negatives through growth, removes and rehashes
+            ok = new HashTable<Integer>(5).bloomFalsePositiveRate() == 1;
+            for (int kind = 0; kind < 4; kind++) {
+                HashTable<Integer> filtered = new HashTable<>(5, false, kind == 2);
+                filtered.setIncrementalRehash(kind == 1);
+                filtered.setShrinkLoad(kind == 1 ? 10 : 0);
+                filtered.setPathCopying(kind == 3);
+                filtered.setBloomFilter(true);
+                filtered.setMetricsEnabled(true);
+                java.util.HashSet<Integer> inTable = new java.util.HashSet<>();
+                for (int i = 0; i < 20000; i++) {
+                    int v = rnd.nextInt(1 << 20) * 2;//only even values are added, so odd probes are all misses
+                    filtered.add(v);
+                    inTable.add(v);
+                }
+                ArrayList<Integer> more = new ArrayList<>();
+                for (int i = 0; i < 30000; i++)
+                    more.add(rnd.nextInt(1 << 20) * 2);
+                filtered.addAll(more);
+                inTable.addAll(more);
+                double full = filtered.bloomFalsePositiveRate();
+                for (int i = 0; i < 20000; i++)
+                    filtered.contains(rnd.nextInt(1 << 20) * 2 + 1);
+                ok = ok && full > 0 && full < 0.03 && filtered.getMetrics().getBloomFalsePositiveRate() < 0.03
+                        && filtered.getMetrics().getBloomRejectCount() > 19000;
+                Integer[] seen = inTable.toArray(new Integer[0]);
+                for (int i = 0; i < seen.length * 3 / 4; i++) {
+                    filtered.remove(seen[i]);
+                    inTable.remove(seen[i]);
+                }
+                HashTable<Integer> snap = filtered.snapshot();
+                for (Integer v : seen)
+                    ok = ok && filtered.contains(v) == inTable.contains(v) && snap.contains(v) == inTable.contains(v);
+                ok = ok && filtered.size() == inTable.size() && filtered.isBloomFilter() && !snap.isBloomFilter()
+                        && filtered.bloomFalsePositiveRate() < full;//rebuilt without the removed values
+            }
+            if (ok){
+                System.out.println("Yay 26");
+            }
+
+            //path copying keeps the stack safety of the plain chains:
+            //32768 colliding strings in sorted order make one chain of height 32767
+            String[] sortedKeys = {""};
+            for (int i = 0; i < 15; i++) {
+                String[] next = new String[sortedKeys.length * 2];
+                for (int j = 0; j < sortedKeys.length; j++) {
+                    next[2 * j] = sortedKeys[j] + "Aa";//"Aa" < "BB", so next stays sorted
+                    next[2 * j + 1] = sortedKeys[j] + "BB";
+                }
+                sortedKeys = next;
+            }
+            HashTable<String> deep = HashTable.withExpectedSize(sortedKeys.length);//never rehashes
+            deep.setPathCopying(true);
+            for (String key : sortedKeys)
+                deep.add(key);
+            HashTable<String> deepSnap = deep.snapshot();
+            ok = deep.size() == sortedKeys.length && deep.minAndMaxTreeHeight().second == sortedKeys.length - 1;
+            for (int i = 0; i < sortedKeys.length; i += 2)
+                ok = ok && deep.remove(sortedKeys[i]);
+            ok = ok && deep.size() == sortedKeys.length / 2 && deepSnap.size() == sortedKeys.length
+                    && deepSnap.contains(sortedKeys[0]) && !deep.contains(sortedKeys[0]) && deep.contains(sortedKeys[1])
+                    && deep.toArray().length == deep.size() && deepSnap.toString().length() > 0;
+            if (ok){
+                System.out.println("Yay 27");
+            }
+
+            if (debug){
+                writer.write("====================================================="+System.getProperty("line.separator"));
+                writer.write("ht2 after rehash to length 11"+System.getProperty("line.separator"));
+                writer.write("-----------------------------------------------------"+System.getProperty("line.separator"));
+                writer.write(ht2.toStringDebug(true)+System.getProperty("line.separator")+System.getProperty("line.separator"));
+
+                //bigger hashtable w/ major clusterings
+                HashTable<Integer> ht3 = new HashTable<>(20);
+                ht3.add(160); ht3.add(20);ht3.add(100); ht3.add(80);
+                ht3.add(400); ht3.add(280); ht3.add(640);
+
+                ht3.add(543); ht3.add(3); ht3.add(283); ht3.add(343); ht3.add(443);
+
+                ht3.add(334); ht3.add(974); ht3.add(454);
+
+                writer.write("====================================================="+System.getProperty("line.separator"));
+                writer.write("ht3 of 15 values clustered into three trees"+System.getProperty("line.separator"));
+                writer.write("-----------------------------------------------------"+System.getProperty("line.separator"));
+                writer.write(ht3.toStringDebug(true)+System.getProperty("line.separator")+System.getProperty("line.separator"));
+
+                //bigger hashtable w/ uniform distribution
+                ht3 = new HashTable<>(20);
+                int count=0;
+                Random r = new Random(0);
+                while (count<15){
+                    if (ht3.add(r.nextInt(1000)))
+                        count++;
+                }
+                writer.write("====================================================="+System.getProperty("line.separator"));
+                writer.write("ht3 of 15 values uniformly distributed"+System.getProperty("line.separator"));
+                writer.write("-----------------------------------------------------"+System.getProperty("line.separator"));
+                writer.write(ht3.toStringDebug(true)+System.getProperty("line.separator"));
+
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            try{
+                if (writer!=null)
+                    writer.close();
+            }
+            catch (IOException e){
+                e.printStackTrace();
+            }
+        }
+
+    }
+
+
+}
\ No newline at end of file
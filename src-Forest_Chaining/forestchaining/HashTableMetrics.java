@@ -0,0 +1,231 @@
+package forestchaining;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in counters of one HashTable: compareTo calls per operation,
+ * a probe-depth histogram for contains and the rehash history.
+ * A table only has one while metrics are enabled, so a disabled table
+ * pays a single null check per operation.
+ * The counters are written by the thread using the table without any
+ * synchronization; a reader on another thread, such as JMX, may see
+ * slightly stale values.
+ */
+class HashTableMetrics implements HashTableMetricsMBean {
+
+
+    // probe depths 0 .. PROBE_DEPTHS - 2 get their own entry, deeper ones share the last
+    static final int PROBE_DEPTHS = 33;
+
+    private long containsCount, containsCompares;
+    private long addCount, addCompares;
+    private long removeCount, removeCompares;
+    private long[] probeDepths = new long[PROBE_DEPTHS];
+    private int maxProbeDepth;
+    private long bloomRejects, bloomFalsePositives;
+
+    private long rehashCount, rehashNanos, lastRehashNanos, lastRehashValues, maxRehashNanos;
+    private long pendingRehashNanos;//steps of the rehash in progress
+
+    private ObjectName name;//set while registered
+
+    /**
+     * Records one contains call
+     *
+     * @param compares the compareTo calls it took
+     */
+    void contains(int compares) {
+        containsCount++;
+        containsCompares += compares;
+        probeDepths[Math.min(compares, PROBE_DEPTHS - 1)]++;
+        if (compares > maxProbeDepth)
+            maxProbeDepth = compares;
+    }
+
+    /**
+     * Records one contains call answered by the Bloom filter alone
+     */
+    void bloomRejected() {
+        contains(0);
+        bloomRejects++;
+    }
+
+    /**
+     * Records one contains call the Bloom filter let through
+     * for a value that was not there
+     */
+    void bloomFalsePositive() {
+        bloomFalsePositives++;
+    }
+
+    /**
+     * Records one add call
+     *
+     * @param compares the compareTo calls it took
+     */
+    void add(int compares) {
+        addCount++;
+        addCompares += compares;
+    }
+
+    /**
+     * Records one remove call
+     *
+     * @param compares the compareTo calls it took
+     */
+    void remove(int compares) {
+        removeCount++;
+        removeCompares += compares;
+    }
+
+    /**
+     * Adds time spent on the rehash in progress
+     *
+     * @param nanos the nanoseconds
+     */
+    void rehashWork(long nanos) {
+        pendingRehashNanos += nanos;
+    }
+
+    /**
+     * Closes the rehash in progress
+     *
+     * @param values the number of values in the table
+     */
+    void rehashed(int values) {
+        rehashCount++;
+        rehashNanos += pendingRehashNanos;
+        lastRehashNanos = pendingRehashNanos;
+        lastRehashValues = values;
+        if (pendingRehashNanos > maxRehashNanos)
+            maxRehashNanos = pendingRehashNanos;
+        pendingRehashNanos = 0;
+    }
+
+    public long getContainsCount() {
+        return containsCount;
+    }
+
+    public double getAvgContainsCompares() {
+        return containsCount == 0 ? 0 : (double) containsCompares / containsCount;
+    }
+
+    public long getAddCount() {
+        return addCount;
+    }
+
+    public double getAvgAddCompares() {
+        return addCount == 0 ? 0 : (double) addCompares / addCount;
+    }
+
+    public long getRemoveCount() {
+        return removeCount;
+    }
+
+    public double getAvgRemoveCompares() {
+        return removeCount == 0 ? 0 : (double) removeCompares / removeCount;
+    }
+
+    public long[] getProbeDepthHistogram() {
+        return probeDepths.clone();
+    }
+
+    public int getMaxProbeDepth() {
+        return maxProbeDepth;
+    }
+
+    public int getP99ProbeDepth() {
+        long total = 0;
+        for (int i = 0; i < PROBE_DEPTHS; i++)
+            total += probeDepths[i];
+
+        long seen = 0;
+        for (int i = 0; i < PROBE_DEPTHS; i++) {
+            seen += probeDepths[i];
+            if (seen * 100 >= total * 99)
+                return i;
+        }
+        return 0;//no calls yet
+    }
+
+    public long getBloomRejectCount() {
+        return bloomRejects;
+    }
+
+    public long getBloomFalsePositiveCount() {
+        return bloomFalsePositives;
+    }
+
+    public double getBloomFalsePositiveRate() {
+        long misses = bloomRejects + bloomFalsePositives;
+        return misses == 0 ? 0 : (double) bloomFalsePositives / misses;
+    }
+
+    public long getRehashCount() {
+        return rehashCount;
+    }
+
+    public long getRehashNanos() {
+        return rehashNanos;
+    }
+
+    public long getLastRehashNanos() {
+        return lastRehashNanos;
+    }
+
+    public long getLastRehashValues() {
+        return lastRehashValues;
+    }
+
+    public long getMaxRehashNanos() {
+        return maxRehashNanos;
+    }
+
+    public void reset() {
+        containsCount = containsCompares = 0;
+        addCount = addCompares = 0;
+        removeCount = removeCompares = 0;
+        probeDepths = new long[PROBE_DEPTHS];
+        maxProbeDepth = 0;
+        bloomRejects = bloomFalsePositives = 0;
+        rehashCount = rehashNanos = lastRehashNanos = lastRehashValues = maxRehashNanos = 0;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server
+     * as forestchaining:type=HashTable,name=&lt;name&gt;
+     *
+     * @param name the table name, unique among registered tables
+     * @return the object name
+     * @throws JMException if the name is taken or not valid
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("forestchaining:type=HashTable,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        this.name = objectName;
+        return objectName;
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server, if registered
+     *
+     * @throws JMException if the server refuses
+     */
+    public void unregister() throws JMException {
+        if (name != null)
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        name = null;
+    }
+
+    public String toString() {
+        return String.format("contains %d (%.2f compares, p99 %d, max %d, bloom fp %.4f) add %d (%.2f) remove %d (%.2f)"
+                        + " rehash %d (last %d values in %d us) probe depths %s",
+                containsCount, getAvgContainsCompares(), getP99ProbeDepth(), maxProbeDepth, getBloomFalsePositiveRate(),
+                addCount, getAvgAddCompares(), removeCount, getAvgRemoveCompares(),
+                rehashCount, lastRehashValues, lastRehashNanos / 1000, Arrays.toString(probeDepths));
+    }
+
+}
@@ -0,0 +1,135 @@
+package forestchaining;
+
+/**
+ * JMX view of the metrics of one HashTable, see HashTableMetrics
+ * Public because JMX only introspects public MBean interfaces.
+ */
+public interface HashTableMetricsMBean {
+
+    /**
+     * Number of contains calls
+     *
+     * @return the count
+     */
+    long getContainsCount();
+
+    /**
+     * Average compareTo calls per contains
+     *
+     * @return the average, 0 without calls
+     */
+    double getAvgContainsCompares();
+
+    /**
+     * Number of add calls with a non-null value
+     *
+     * @return the count
+     */
+    long getAddCount();
+
+    /**
+     * Average compareTo calls per add, for finding the value's place
+     *
+     * @return the average, 0 without calls
+     */
+    double getAvgAddCompares();
+
+    /**
+     * Number of remove calls
+     *
+     * @return the count
+     */
+    long getRemoveCount();
+
+    /**
+     * Average compareTo calls per remove, for finding the value
+     *
+     * @return the average, 0 without calls
+     */
+    double getAvgRemoveCompares();
+
+    /**
+     * Contains calls per probe depth (compareTo calls);
+     * the last entry counts every depth from its index up
+     *
+     * @return a copy of the histogram
+     */
+    long[] getProbeDepthHistogram();
+
+    /**
+     * Deepest probe seen by contains
+     *
+     * @return the depth
+     */
+    int getMaxProbeDepth();
+
+    /**
+     * Probe depth that 99% of the contains calls did not exceed
+     *
+     * @return the depth, capped at the last histogram entry
+     */
+    int getP99ProbeDepth();
+
+    /**
+     * Contains calls the Bloom filter answered alone, as misses
+     *
+     * @return the count
+     */
+    long getBloomRejectCount();
+
+    /**
+     * Contains calls the Bloom filter let through for a value not in the table
+     *
+     * @return the count
+     */
+    long getBloomFalsePositiveCount();
+
+    /**
+     * Share of the misses the Bloom filter let through
+     *
+     * @return the rate, 0 without misses or without a filter
+     */
+    double getBloomFalsePositiveRate();
+
+    /**
+     * Number of completed rehashes
+     *
+     * @return the count
+     */
+    long getRehashCount();
+
+    /**
+     * Time spent in all completed rehashes
+     *
+     * @return the nanoseconds
+     */
+    long getRehashNanos();
+
+    /**
+     * Duration of the latest rehash; for an incremental rehash,
+     * the time its steps took, summed
+     *
+     * @return the nanoseconds
+     */
+    long getLastRehashNanos();
+
+    /**
+     * Number of values in the table after the latest rehash
+     *
+     * @return the count
+     */
+    long getLastRehashValues();
+
+    /**
+     * Longest rehash so far
+     *
+     * @return the nanoseconds
+     */
+    long getMaxRehashNanos();
+
+    /**
+     * Clears every counter
+     */
+    void reset();
+
+}
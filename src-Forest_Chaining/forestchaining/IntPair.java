@@ -0,0 +1,112 @@
+package forestchaining;
+
+/**
+ * An immutable pair of int values, unboxed: one object per composite key
+ * instead of a Pair and two Integers. Ordered by first, then second;
+ * the hash code is mixed once, in the constructor
+ */
+class IntPair implements Comparable<IntPair> {
+
+    final int first;
+    final int second;
+    private final int hash;
+
+    /**
+     * Instantiates a new pair
+     *
+     * @param first the first value
+     * @param second the second value
+     */
+    public IntPair(int first, int second) {
+        this.first = first;
+        this.second = second;
+        this.hash = HashTable.spread(first * 0x9e3779b9 + second);
+    }
+
+    /**
+     * Return the first value
+     *
+     * @return the value
+     */
+    public int getFirst() {
+        return first;
+    }
+
+    /**
+     * Return the second value
+     *
+     * @return the value
+     */
+    public int getSecond() {
+        return second;
+    }
+
+    /**
+     * Compares by first value, then by second value
+     *
+     * @param other the other pair
+     * @return negative, zero or positive as this pair is before, equal to or after other
+     */
+    public int compareTo(IntPair other) {
+        int diff = Integer.compare(first, other.first);
+        return diff != 0 ? diff : Integer.compare(second, other.second);
+    }
+
+    /**
+     * java.lang.Object#equals()
+     */
+    public boolean equals(Object o) {
+        if (o instanceof IntPair) {
+            IntPair pair = (IntPair) o;
+            return first == pair.first && second == pair.second;
+        }
+        return false;
+    }
+
+    /**
+     * java.lang.Object#hashCode()
+     */
+    // O(1): computed by the constructor
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Return string representation of a pair as <first,second> with no spaces
+     */
+    public String toString() {
+        return "<" + first + "," + second + ">";
+    }
+
+    public static void main(String[] args) {
+        //equals, order and hash agree with Pair's
+        IntPair a = new IntPair(3, -7);
+        boolean ok = a.equals(new IntPair(3, -7)) && !a.equals(new IntPair(-7, 3)) && !a.equals(new Pair<>(3, -7))
+                && a.hashCode() == new IntPair(3, -7).hashCode() && a.toString().equals(new Pair<>(3, -7).toString())
+                && a.compareTo(new IntPair(3, 0)) < 0 && a.compareTo(new IntPair(2, 100)) > 0
+                && new IntPair(Integer.MIN_VALUE, 0).compareTo(new IntPair(Integer.MAX_VALUE, 0)) < 0;
+        if (ok){
+            System.out.println("Yay 1");
+        }
+
+        //a grid of keys fills every bucket of a power-of-two table evenly
+        HashTable<IntPair> grid = new HashTable<>(1024);
+        for (int i = 0; i < 64; i++)
+            for (int j = 0; j < 8; j++)
+                grid.add(new IntPair(i, j));
+        if (grid.size() == 512 && grid.contains(new IntPair(63, 7)) && !grid.contains(new IntPair(7, 63))
+                && grid.minAndMaxTreeSize().second <= 4){
+            System.out.println("Yay 2");
+        }
+
+        //composite keys in a Set, in order
+        Set<IntPair> keys = new Set<>();
+        for (int i = 999; i >= 0; i--)
+            keys.add(new IntPair(i % 10, i));
+        if (keys.size() == 1000 && keys.first().equals(new IntPair(0, 0)) && keys.last().equals(new IntPair(9, 999))
+                && keys.rangeQuery(new IntPair(3, 0), new IntPair(4, 0)).size() == 100){
+            System.out.println("Yay 3");
+        }
+    }
+
+}
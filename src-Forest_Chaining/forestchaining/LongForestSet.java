@@ -0,0 +1,418 @@
+package forestchaining;
+
+import java.util.Random;
+
+/**
+ * A set of long values with no boxing.
+ * It is a hash table whose chains are sorted long arrays searched by bisection,
+ * the array form of a perfectly balanced BST. Once a chain has grown,
+ * add, contains and remove allocate nothing.
+ */
+class LongForestSet {
+
+
+    static private int minLength = 2;
+
+    private int size = 0;
+    private long[][] chains;//chains[i] holds counts[i] sorted values, or is null
+    private int[] counts;
+
+    /**
+     * Instantiates a new empty set
+     */
+    public LongForestSet() {
+        this(0);
+    }
+
+    /**
+     * Instantiates a new set with room for expectedSize values
+     *
+     * @param expectedSize the expected number of values
+     */
+    public LongForestSet(int expectedSize) {
+        int length = minLength;
+        while (length < (1 << 30) && (long) expectedSize * 100 >= (long) length * 80)
+            length *= 2;//power of two, load below 80%
+        chains = new long[length][];
+        counts = new int[length];
+    }
+
+    /**
+     * Return the table length
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return chains.length;
+    }
+
+    /**
+     * Return the number of values in the set
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Index function for the table
+     *
+     * @param value the value
+     * @param mask the table length - 1
+     * @return the index
+     */
+    private static int index(long value, int mask) {
+        return HashTable.spread(Long.hashCode(value)) & mask;
+    }
+
+    /**
+     * Binary search in the first count values of chain
+     *
+     * @param chain the chain
+     * @param count the number of values
+     * @param value the value
+     * @return the index of value, or -(insertion point) - 1
+     */
+    private static int search(long[] chain, int count, long value) {
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (chain[mid] < value)
+                lo = mid + 1;
+            else if (chain[mid] > value)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * If value not present in set, add value and return true
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    // Average case: O(log load)
+    public boolean add(long value) {
+        int i = index(value, chains.length - 1);
+        long[] chain = chains[i];
+        int count = counts[i];
+
+        int pos = 0;
+        if (chain != null) {
+            pos = search(chain, count, value);
+            if (pos >= 0)
+                return false;
+            pos = -pos - 1;
+        }
+
+        if (chain == null)
+            chain = chains[i] = new long[2];
+        else if (count == chain.length) {
+            long[] bigger = new long[count * 2];
+            System.arraycopy(chain, 0, bigger, 0, count);
+            chain = chains[i] = bigger;
+        }
+
+        System.arraycopy(chain, pos, chain, pos + 1, count - pos);
+        chain[pos] = value;
+        counts[i]++;
+        size++;
+
+        if ((long) size * 100 >= (long) chains.length * 80 && chains.length < (1 << 30))
+            rehash(chains.length * 2);
+        return true;
+    }
+
+    /**
+     * Return true if value in set, false otherwise
+     *
+     * @param value the value
+     * @return true, if present
+     */
+    // Average case: O(log load)
+    public boolean contains(long value) {
+        int i = index(value, chains.length - 1);
+        return chains[i] != null && search(chains[i], counts[i], value) >= 0;
+    }
+
+    /**
+     * If value present in set, remove value and return true
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    // Average case: O(log load)
+    public boolean remove(long value) {
+        int i = index(value, chains.length - 1);
+        long[] chain = chains[i];
+        if (chain == null)
+            return false;
+
+        int pos = search(chain, counts[i], value);
+        if (pos < 0)
+            return false;
+
+        System.arraycopy(chain, pos + 1, chain, pos, counts[i] - pos - 1);
+        counts[i]--;
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves every value into a table of twice the length
+     * With a power-of-two mask each new chain takes values from exactly one
+     * old chain, so copying in order keeps the new chains sorted
+     *
+     * @param newLength the new length, twice the old one
+     */
+    private void rehash(int newLength) {
+        long[][] oldChains = chains;
+        int[] oldCounts = counts;
+        chains = new long[newLength][];
+        counts = new int[newLength];
+
+        int mask = newLength - 1;
+        for (int i = 0; i < oldChains.length; i++) {
+            for (int j = 0; j < oldCounts[i]; j++) {
+                long value = oldChains[i][j];
+                int k = index(value, mask);
+                if (chains[k] == null)
+                    chains[k] = new long[2];
+                else if (counts[k] == chains[k].length) {
+                    long[] bigger = new long[counts[k] * 2];
+                    System.arraycopy(chains[k], 0, bigger, 0, counts[k]);
+                    chains[k] = bigger;
+                }
+                chains[k][counts[k]++] = value;
+            }
+        }
+    }
+
+    /**
+     * Returns an array of all values, in table order
+     *
+     * @return the long[]
+     */
+    public long[] toArray() {
+        long[] array = new long[size];
+        int index = 0;
+        for (int i = 0; i < chains.length; i++) {
+            if (chains[i] != null) {
+                System.arraycopy(chains[i], 0, array, index, counts[i]);
+                index += counts[i];
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Return a string representation of all values in table order
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < chains.length; i++) {
+            for (int j = 0; j < counts[i]; j++)
+                s.append(chains[i][j]).append(' ');
+        }
+        return s.toString().trim();
+    }
+
+    /**
+     * Add all values into set
+     *
+     * @param values the values
+     * @return the number of values successfully added
+     */
+    public int addAll(long... values) {
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (add(values[i]))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Construct and return the intersection set of this and other
+     *
+     * @param other the other
+     * @return the intersection
+     */
+    // Original sets should not be modified.
+    public LongForestSet intersection(LongForestSet other) {
+        LongForestSet small = size <= other.size ? this : other;
+        LongForestSet large = small == this ? other : this;
+        LongForestSet set = new LongForestSet(small.size);
+
+        for (int i = 0; i < small.chains.length; i++) {
+            for (int j = 0; j < small.counts[i]; j++) {
+                if (large.contains(small.chains[i][j]))
+                    set.add(small.chains[i][j]);
+            }
+        }
+        return set;
+    }
+
+    /**
+     * Construct and return the union set of this and other
+     *
+     * @param other the other
+     * @return the union
+     */
+    // Original sets should not be modified.
+    public LongForestSet union(LongForestSet other) {
+        LongForestSet set = new LongForestSet(size + other.size);
+        set.addChains(this, null);
+        set.addChains(other, null);
+        return set;
+    }
+
+    /**
+     * Construct and return the difference set: this - other
+     *
+     * @param other the other
+     * @return the difference
+     */
+    // Original sets should not be modified.
+    public LongForestSet difference(LongForestSet other) {
+        LongForestSet set = new LongForestSet(size);
+        set.addChains(this, other);
+        return set;
+    }
+
+    /**
+     * Construct and return the symmetric difference set
+     *
+     * @param other the other
+     * @return the symmetric Difference
+     */
+    // Original sets should not be modified.
+    public LongForestSet symmetricDifference(LongForestSet other) {
+        LongForestSet set = new LongForestSet(size + other.size);
+        set.addChains(this, other);
+        set.addChains(other, this);
+        return set;
+    }
+
+    /**
+     * Return true if this set is a subset of other
+     *
+     * @param other the other
+     * @return true, if is subset
+     */
+    public boolean isSubset(LongForestSet other) {
+        if (size > other.size)
+            return false;
+        for (int i = 0; i < chains.length; i++) {
+            for (int j = 0; j < counts[i]; j++) {
+                if (!other.contains(chains[i][j]))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return true if there is no overlap between this set and other
+     *
+     * @param other the other
+     * @return true, if is disjoint
+     */
+    public boolean isDisjoint(LongForestSet other) {
+        LongForestSet small = size <= other.size ? this : other;
+        LongForestSet large = small == this ? other : this;
+        for (int i = 0; i < small.chains.length; i++) {
+            for (int j = 0; j < small.counts[i]; j++) {
+                if (large.contains(small.chains[i][j]))
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds every value of from that is not in skip (if given)
+     *
+     * @param from the source set
+     * @param skip values to leave out, or null
+     */
+    private void addChains(LongForestSet from, LongForestSet skip) {
+        for (int i = 0; i < from.chains.length; i++) {
+            for (int j = 0; j < from.counts[i]; j++) {
+                long value = from.chains[i][j];
+                if (skip == null || !skip.contains(value))
+                    add(value);
+            }
+        }
+    }
+
+
+    //--------------------------------
+    // Main Method For Your Testing
+    //--------------------------------
+    public static void main(String[] args) {
+        long[] data1 = { 1, 2, 3,   5,    7 };
+        long[] data2 = {    2,   4, 5, 6    };
+        LongForestSet set1 = new LongForestSet();
+        LongForestSet set2 = new LongForestSet();
+
+        //addAll
+        if (set1.addAll(data1) == 5 && set2.addAll(data2) == 4 && set1.addAll(1, 2) == 0
+                && set1.size() == 5 && set1.toArray().length == 5){
+            System.out.println("Yay 1");
+        }
+
+        LongForestSet set3 = set1.intersection(set2);
+        if (set3.contains(2) && set3.contains(5) && !set3.contains(1) && set3.size() == 2){
+            System.out.println("Yay 2");
+        }
+
+        LongForestSet set4 = set1.union(set2);
+        boolean ok = true;
+        for (int i = 1; i < 8; i++)
+            ok = ok && set4.contains(i);
+        if (ok && set4.size() == 7){
+            System.out.println("Yay 3");
+        }
+
+        LongForestSet set5 = set1.difference(set2);
+        if (set5.size() == 3 && set5.contains(1) && set5.contains(3) && set5.contains(7)
+                && !set5.contains(2) && !set5.contains(5) && !set5.contains(4)){
+            System.out.println("Yay 4");
+        }
+
+        LongForestSet set6 = set1.symmetricDifference(set2);
+        if (set6.size() == 5 && !set6.contains(2) && set6.contains(4)
+                && !set1.isSubset(set2) && set3.isSubset(set2)
+                && !set1.isDisjoint(set2) && set5.isDisjoint(set2)){
+            System.out.println("Yay 5");
+        }
+
+        //random work against HashTable, values spread over the high bits too
+        LongForestSet s = new LongForestSet();
+        HashTable<Long> ht = new HashTable<>(5);
+        Random r = new Random(0);
+        ok = true;
+        for (int i = 0; i < 100000; i++) {
+            long v = ((long) (r.nextInt(200) - 100) << 32) + r.nextInt(100);
+            if (r.nextInt(3) == 0)
+                ok = ok && s.remove(v) == ht.remove(v);
+            else
+                ok = ok && s.add(v) == ht.add(v);
+            ok = ok && s.size() == ht.size();
+        }
+        for (long hi = -100; hi < 100; hi++) {
+            for (long lo = 0; lo < 100; lo++)
+                ok = ok && s.contains((hi << 32) + lo) == ht.contains((hi << 32) + lo);
+        }
+        ok = ok && s.contains(Long.MIN_VALUE) == false && s.add(Long.MIN_VALUE)
+                && s.add(Long.MAX_VALUE) && s.contains(Long.MIN_VALUE) && s.remove(Long.MAX_VALUE);
+        if (ok){
+            System.out.println("Yay 6");
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package forestchaining;
+
+/**
+ * An immutable pair of long values, unboxed: one object per composite key
+ * instead of a Pair and two Longs. Ordered by first, then second;
+ * the hash code is mixed once, in the constructor
+ */
+class LongPair implements Comparable<LongPair> {
+
+    final long first;
+    final long second;
+    private final int hash;
+
+    /**
+     * Instantiates a new pair
+     *
+     * @param first the first value
+     * @param second the second value
+     */
+    public LongPair(long first, long second) {
+        this.first = first;
+        this.second = second;
+        this.hash = HashTable.spread(Long.hashCode(first * 0x9e3779b97f4a7c15L + second));
+    }
+
+    /**
+     * Return the first value
+     *
+     * @return the value
+     */
+    public long getFirst() {
+        return first;
+    }
+
+    /**
+     * Return the second value
+     *
+     * @return the value
+     */
+    public long getSecond() {
+        return second;
+    }
+
+    /**
+     * Compares by first value, then by second value
+     *
+     * @param other the other pair
+     * @return negative, zero or positive as this pair is before, equal to or after other
+     */
+    public int compareTo(LongPair other) {
+        int diff = Long.compare(first, other.first);
+        return diff != 0 ? diff : Long.compare(second, other.second);
+    }
+
+    /**
+     * java.lang.Object#equals()
+     */
+    public boolean equals(Object o) {
+        if (o instanceof LongPair) {
+            LongPair pair = (LongPair) o;
+            return first == pair.first && second == pair.second;
+        }
+        return false;
+    }
+
+    /**
+     * java.lang.Object#hashCode()
+     */
+    // O(1): computed by the constructor
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Return string representation of a pair as <first,second> with no spaces
+     */
+    public String toString() {
+        return "<" + first + "," + second + ">";
+    }
+
+    public static void main(String[] args) {
+        //equals, order and hash
+        LongPair a = new LongPair(1L << 40, -7);
+        boolean ok = a.equals(new LongPair(1L << 40, -7)) && !a.equals(new LongPair(-7, 1L << 40))
+                && a.hashCode() == new LongPair(1L << 40, -7).hashCode() && a.toString().equals("<1099511627776,-7>")
+                && a.compareTo(new LongPair(1L << 40, 0)) < 0 && a.compareTo(new LongPair(1L << 39, 100)) > 0;
+        if (ok){
+            System.out.println("Yay 1");
+        }
+
+        //keys differing only in the high halves still spread
+        HashTable<LongPair> table = new HashTable<>(1024);
+        for (long i = 0; i < 512; i++)
+            table.add(new LongPair(i << 32, 5L << 32));
+        if (table.size() == 512 && table.contains(new LongPair(511L << 32, 5L << 32))
+                && table.minAndMaxTreeSize().second <= 5){
+            System.out.println("Yay 2");
+        }
+
+        //composite keys in a Set, in order
+        Set<LongPair> keys = new Set<>();
+        for (long i = 0; i < 1000; i++)
+            keys.add(new LongPair(i % 10, -i));
+        if (keys.size() == 1000 && keys.first().equals(new LongPair(0, -990)) && keys.last().equals(new LongPair(9, -9))){
+            System.out.println("Yay 3");
+        }
+    }
+
+}
@@ -0,0 +1,1010 @@
+package forestchaining;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * A hash table with tree chains that lives in a memory-mapped file,
+ * so it survives restarts and can be larger than the heap.
+ * The file holds a header, a directory with the root offset of every bucket,
+ * and node records [left offset, right offset, value length, priority,
+ * value bytes]: file offsets take the place of SimpleBST.Node references,
+ * 0 is null.
+ * Opening an existing file only maps it, nothing is deserialized.
+ *
+ * Like in PersistentBST, a node is never changed once it is linked in:
+ * add and remove append copies of the O(H) nodes on the search path and
+ * publish the new root with one 8-byte directory write. Every change is
+ * first appended to a write log, file + ".log". checkpoint() forces the
+ * file, copies the directory to a second one and empties the log; opening
+ * a file whose log is not empty goes back to that copy and replays the log.
+ * That recovers every logged change after a JVM crash, and after an OS crash
+ * as well if the log is synced on every write.
+ *
+ * Chains are treaps: a node's priority is a hash of its value bytes, and
+ * no node has a higher priority than its parent. Their expected height is
+ * O(log K) whatever the order of the adds, sorted keys included, and a
+ * chain's shape depends only on the values in it, so recovery rebuilds
+ * the same trees. The directory length is fixed when the file is created;
+ * an overfull table slows down to O(log(N/M)) rather than O(N/M).
+ * Replaced nodes stay in the file until compact().
+ * Not thread-safe.
+ *
+ * @param <T> the generic type
+ */
+class MappedHashTable<T extends Comparable<T>> implements SetStorage<T>, Closeable {
+
+
+    // bytes mapped per segment of a new file; a node record never crosses one
+    static private int defaultSegmentSize = 1 << 30;
+
+    // header layout
+    static final int MAGIC = 0x46434d54;//"FCMT"
+    static final int VERSION = 2;//1 had unbalanced chains and no priorities
+    static private final int AT_MAGIC = 0, AT_VERSION = 4, AT_LENGTH = 8, AT_SEGMENT = 12;
+    static private final int AT_SIZE = 16, AT_END = 24, AT_CHECKPOINT_END = 32;
+    static private final int HEADER = 64;
+
+    // node record layout
+    static private final int LEFT = 0, RIGHT = 8, LENGTH = 16, PRIORITY = 20, VALUE = 24;
+
+    // log record: operation, value byte count, value bytes
+    static private final byte LOG_ADD = 1, LOG_REMOVE = 2;
+    static private final int LOG_HEADER = 1 + Integer.BYTES;
+
+    private final Path file;
+    private final SnapshotCodec<T> codec;
+    private final boolean sync;//force the log on every write
+
+    private FileChannel data;
+    private FileChannel log;
+    private MappedByteBuffer[] segments;//segment i maps the bytes from i * segmentSize on
+    private long mapped;//bytes mapped over all segments
+    private int segmentSize;
+    private int length;//directory length, a power of two
+    private long end;//first free byte
+    private int size;
+    private int modCount = 0;//adds, removes and compactions, for fail-fast iteration
+    private boolean replaying = false;//applying the log, so don't append to it
+
+    private long[] path = new long[8];//nodes from a root down, reused by add and remove
+    private boolean[] wentLeft = new boolean[8];//the walk left path[i] to the left
+    private ByteBuffer logBuffer = ByteBuffer.allocate(256);
+
+    /**
+     * Opens the table in file, creating it with room for expectedSize values
+     * if it does not exist; the log is not synced
+     *
+     * @param <T> the generic type
+     * @param file the file
+     * @param expectedSize the expected number of values, for a new file
+     * @param codec the value encoding
+     * @return the table
+     * @throws IOException if the file can't be opened or is not a table
+     */
+    public static <T extends Comparable<T>> MappedHashTable<T> open(Path file, int expectedSize, SnapshotCodec<T> codec)
+            throws IOException {
+        return open(file, expectedSize, codec, false);
+    }
+
+    /**
+     * Opens the table in file, creating it with room for expectedSize values
+     * (below 80% load) if it does not exist
+     * An existing file keeps its own directory length, and is recovered
+     * from its log if it was not closed cleanly
+     *
+     * @param <T> the generic type
+     * @param file the file
+     * @param expectedSize the expected number of values, for a new file
+     * @param codec the value encoding
+     * @param sync true to force the log to disk on every add and remove
+     * @return the table
+     * @throws IOException if the file can't be opened or is not a table
+     */
+    public static <T extends Comparable<T>> MappedHashTable<T> open(Path file, int expectedSize,
+            SnapshotCodec<T> codec, boolean sync) throws IOException {
+        MappedHashTable<T> table = new MappedHashTable<>(file, codec, sync);
+        table.map(expectedSize);
+        return table;
+    }
+
+    /**
+     * Instantiates a table; map() opens it
+     *
+     * @param file the file
+     * @param codec the value encoding
+     * @param sync true to force the log on every write
+     */
+    private MappedHashTable(Path file, SnapshotCodec<T> codec, boolean sync) {
+        this.file = file;
+        this.codec = codec;
+        this.sync = sync;
+    }
+
+    /**
+     * Opens and maps the files, formatting a new data file or
+     * recovering an existing one from its log
+     *
+     * @param expectedSize the expected number of values, for a new file
+     * @throws IOException if the file can't be opened or is not a table
+     */
+    private void map(int expectedSize) throws IOException {
+        data = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log = FileChannel.open(logPath(file), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log.position(log.size());
+        segments = new MappedByteBuffer[0];
+        mapped = 0;
+
+        if (data.size() == 0) {
+            long buckets = Math.max((long) expectedSize * 5 / 4 + 1, 2);
+            format((int) Math.min(Long.highestOneBit(buckets - 1) << 1, 1 << 30), defaultSegmentSize);
+            return;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        while (header.hasRemaining() && data.read(header, header.position()) > 0)
+            ;
+        if (header.hasRemaining() || header.getInt(AT_MAGIC) != MAGIC)
+            throw new IOException(file + " is not a mapped hash table");
+        if (header.getInt(AT_VERSION) != VERSION)
+            throw new IOException(file + ": version " + header.getInt(AT_VERSION) + " not supported");
+        length = header.getInt(AT_LENGTH);
+        segmentSize = header.getInt(AT_SEGMENT);
+        end = header.getLong(AT_END);
+        size = (int) header.getLong(AT_SIZE);
+        if (Integer.bitCount(length) != 1 || segmentSize <= 0 || segmentSize % 4096 != 0 || end < nodesStart() || end > data.size())
+            throw new IOException(file + ": bad header");
+        ensure(data.size());
+
+        if (log.size() > 0)
+            recover();
+    }
+
+    /**
+     * Writes the header and an empty directory into the empty data file
+     *
+     * @param length the directory length, a power of two
+     * @param segmentSize the segment size, a multiple of 4096
+     * @throws IOException if mapping fails
+     */
+    private void format(int length, int segmentSize) throws IOException {
+        this.length = length;
+        this.segmentSize = segmentSize;
+        end = nodesStart();
+        size = 0;
+        ensure(end);
+        putInt(AT_MAGIC, MAGIC);
+        putInt(AT_VERSION, VERSION);
+        putInt(AT_LENGTH, length);
+        putInt(AT_SEGMENT, segmentSize);
+        putLong(AT_SIZE, 0);
+        putLong(AT_END, end);
+        checkpoint();
+    }
+
+    /**
+     * Goes back to the last checkpoint and replays the log on top of it
+     * add and remove are idempotent, so replaying changes the checkpoint
+     * already holds does no harm; a torn last record is dropped
+     *
+     * @throws IOException if the log can't be read
+     */
+    // O(N+M+L): N as the number of values; M as the directory length;
+    // L as the log length.
+    private void recover() throws IOException {
+        for (int b = 0; b < length; b++)
+            putLong(directory(b), getLong(checkpointDirectory(b)));
+        end = getLong(AT_CHECKPOINT_END);//later nodes may not have reached the disk
+        putLong(AT_END, end);
+        size = 0;
+        forEachWhile(value -> ++size > 0);//recount
+        putLong(AT_SIZE, size);
+
+        ByteBuffer records = ByteBuffer.allocate((int) Math.min(log.size(), Integer.MAX_VALUE));
+        while (records.hasRemaining() && log.read(records, records.position()) > 0)
+            ;
+        records.flip();
+        replaying = true;
+        try {
+            while (records.remaining() >= LOG_HEADER) {
+                byte op = records.get();
+                int bytes = records.getInt();
+                if ((op != LOG_ADD && op != LOG_REMOVE) || bytes < 0 || bytes > records.remaining())
+                    break;//torn last record
+                int next = records.position() + bytes;
+                T value = codec.read(records.slice(records.position(), bytes));
+                records.position(next);
+                if (op == LOG_ADD)
+                    add(value);
+                else
+                    remove(value);
+            }
+        } finally {
+            replaying = false;
+        }
+        checkpoint();
+    }
+
+    /**
+     * Path of the write log of a data file
+     *
+     * @param file the data file
+     * @return the log path
+     */
+    static Path logPath(Path file) {
+        return file.resolveSibling(file.getFileName() + ".log");
+    }
+
+    /**
+     * Makes every change so far durable and empties the log
+     * The nodes are forced before the directory copy, so the copy only
+     * points to nodes that are on disk
+     *
+     * @throws IOException if forcing or truncating fails
+     */
+    // O(M): M as the directory length
+    public void checkpoint() throws IOException {
+        force();
+        putLong(AT_CHECKPOINT_END, end);//the copy may point to anything below end
+        force();
+        for (int b = 0; b < length; b++)
+            putLong(checkpointDirectory(b), getLong(directory(b)));
+        force();
+        log.truncate(0);
+        log.force(false);
+    }
+
+    /**
+     * Forces every mapped segment to disk
+     */
+    private void force() {
+        for (MappedByteBuffer segment : segments)
+            segment.force();
+    }
+
+    /**
+     * Checkpoints and closes the files
+     * The table can't be used afterwards
+     *
+     * @throws IOException if the checkpoint or closing fails
+     */
+    public void close() throws IOException {
+        if (data == null)
+            return;
+        try {
+            checkpoint();
+        } finally {
+            segments = new MappedByteBuffer[0];//unmapped once collected
+            mapped = 0;
+            log.close();
+            data.close();
+            data = null;
+        }
+    }
+
+    /**
+     * Rewrites the live trees, with their shapes, into a fresh file and
+     * moves it over this one, dropping every node add and remove replaced
+     *
+     * @throws IOException if writing or moving the file fails
+     */
+    // O(N+M): N as the number of values; M as the directory length
+    public void compact() throws IOException {
+        checkpoint();
+        Path fresh = file.resolveSibling(file.getFileName() + ".compact");
+        Files.deleteIfExists(fresh);
+        MappedHashTable<T> copy = new MappedHashTable<>(fresh, codec, sync);
+        copy.data = FileChannel.open(fresh, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        copy.log = FileChannel.open(logPath(fresh), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        copy.segments = new MappedByteBuffer[0];
+        copy.format(length, segmentSize);
+        for (int b = 0; b < length; b++) {
+            long root = getLong(directory(b));
+            if (root != 0)
+                copy.putLong(copy.directory(b), copy.copyTree(this, root));
+        }
+        copy.size = size;
+        copy.putLong(AT_SIZE, size);
+        copy.putLong(AT_END, copy.end);
+        copy.close();
+
+        close();
+        Files.move(fresh, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(logPath(fresh));
+        map(size);
+        modCount++;
+    }
+
+    /**
+     * Copies the tree rooted at node of from into this file, in pre-order
+     * The copies are not reachable until the caller links the root, so their
+     * links can still be patched as the children are copied
+     *
+     * @param from the table to copy from
+     * @param node the root
+     * @return the offset of the copy
+     */
+    // O(K): K as the tree size, with a stack instead of recursion
+    private long copyTree(MappedHashTable<T> from, long node) {
+        long root = copyNode(from, node, 0, 0);
+        long[] stack = {node, root};
+        int top = 2;
+        while (top > 0) {
+            long target = stack[--top];
+            long source = stack[--top];
+            for (int link = LEFT; link <= RIGHT; link += RIGHT - LEFT) {
+                long child = from.getLong(source + link);
+                if (child != 0) {
+                    long copy = copyNode(from, child, 0, 0);
+                    putLong(target + link, copy);
+                    if (top + 2 > stack.length)
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    stack[top++] = child;
+                    stack[top++] = copy;
+                }
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Return the directory length
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Return the number of bytes in use, live and replaced nodes included
+     *
+     * @return the byte count
+     */
+    public long usedBytes() {
+        return end;
+    }
+
+    /**
+     * Height of the tallest chain, in nodes, checking the treap order on
+     * the way: no node may have a higher priority than its parent
+     *
+     * @return the height, -1 if a priority is out of order
+     */
+    // O(N+M): N as the number of values; M as the directory length
+    int maxHeight() {
+        int max = 0;
+        long[] stack = new long[16];//node, depth pairs
+        for (int b = 0; b < length; b++) {
+            long root = getLong(directory(b));
+            int top = 0;
+            if (root != 0) {
+                stack[top++] = root;
+                stack[top++] = 1;
+            }
+            while (top > 0) {
+                int depth = (int) stack[--top];
+                long node = stack[--top];
+                max = Math.max(max, depth);
+                for (int link = LEFT; link <= RIGHT; link += RIGHT - LEFT) {
+                    long child = getLong(node + link);
+                    if (child == 0)
+                        continue;
+                    if (Integer.compareUnsigned(getInt(child + PRIORITY), getInt(node + PRIORITY)) > 0)
+                        return -1;
+                    if (top + 2 > stack.length)
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    stack[top++] = child;
+                    stack[top++] = depth + 1;
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Return the number of values
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds value by appending a new leaf and copies of its ancestors
+     * The leaf is rotated up above the ancestors with lower priorities
+     *
+     * @param value the value
+     * @return true, if added
+     * @throws UncheckedIOException if the log can't be written
+     */
+    // O(H): H as the chain height, O(log K) expected; with O(H) new nodes
+    public boolean add(T value) {
+        if (value == null)
+            return false;
+
+        int bucket = index(value);
+        long node = getLong(directory(bucket));
+        int depth = 0;
+        while (node != 0) {
+            int diff = value.compareTo(valueAt(node));
+            if (diff == 0)
+                return false;//duplicate, nothing to log
+            record(depth++, node, diff < 0);
+            node = getLong(node + (diff < 0 ? LEFT : RIGHT));
+        }
+
+        log(LOG_ADD, value);
+        long leaf = newNode(value);
+        int priority = getInt(leaf + PRIORITY);
+        while (depth > 0 && Integer.compareUnsigned(priority, getInt(path[depth - 1] + PRIORITY)) > 0) {
+            // Rotate: the parent becomes a child of the leaf, which is not
+            // reachable yet, so its links can be patched in place
+            long parent = path[--depth];
+            if (wentLeft[depth])
+                putLong(leaf + RIGHT, copyNode(this, parent, getLong(leaf + RIGHT), getLong(parent + RIGHT)));
+            else
+                putLong(leaf + LEFT, copyNode(this, parent, getLong(parent + LEFT), getLong(leaf + LEFT)));
+        }
+        publish(bucket, depth, leaf);
+        size++;
+        putLong(AT_SIZE, size);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Checks whether value is stored
+     *
+     * @param value the value
+     * @return true, if present
+     */
+    // O(H): H as the chain height
+    public boolean contains(T value) {
+        return value != null && find(value) != 0;
+    }
+
+    /**
+     * Removes value by copying its ancestors without it
+     * A node with two children is replaced by the join of its subtrees
+     *
+     * @param value the value
+     * @return true, if removed
+     * @throws UncheckedIOException if the log can't be written
+     */
+    // O(H): H as the chain height, O(log K) expected; with O(H) new nodes
+    public boolean remove(T value) {
+        if (value == null)
+            return false;
+
+        int bucket = index(value);
+        long node = getLong(directory(bucket));
+        int depth = 0;
+        while (node != 0) {
+            int diff = value.compareTo(valueAt(node));
+            if (diff == 0)
+                break;
+            record(depth++, node, diff < 0);
+            node = getLong(node + (diff < 0 ? LEFT : RIGHT));
+        }
+        if (node == 0)
+            return false;
+
+        log(LOG_REMOVE, value);
+        publish(bucket, depth, join(getLong(node + LEFT), getLong(node + RIGHT)));
+        size--;
+        putLong(AT_SIZE, size);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Copies the recorded ancestors bottom-up over the new child and
+     * publishes the new root
+     *
+     * @param bucket the bucket
+     * @param depth the number of recorded ancestors
+     * @param child the new subtree below them, 0 for none
+     */
+    private void publish(int bucket, int depth, long child) {
+        for (int i = depth - 1; i >= 0; i--) {
+            long node = path[i];
+            child = wentLeft[i] ? copyNode(this, node, child, getLong(node + RIGHT))
+                    : copyNode(this, node, getLong(node + LEFT), child);
+        }
+        putLong(directory(bucket), child);
+        putLong(AT_END, end);
+    }
+
+    /**
+     * Joins two treaps, every value of left before every value of right,
+     * copying the nodes on the seam: the right spine of left and the left
+     * spine of right, merged by priority
+     * The copies are not reachable yet, so their links are patched in place
+     *
+     * @param left the left root, 0 for none
+     * @param right the right root, 0 for none
+     * @return the joined root
+     */
+    // O(H): H as the height of the taller tree
+    private long join(long left, long right) {
+        long root = 0;
+        long hole = 0;//offset of the link still to fill, 0 for the root
+        while (left != 0 && right != 0) {
+            long top;
+            int link;//the link of top the rest of the join goes to
+            if (Integer.compareUnsigned(getInt(left + PRIORITY), getInt(right + PRIORITY)) >= 0) {
+                top = copyNode(this, left, getLong(left + LEFT), 0);
+                link = RIGHT;
+                left = getLong(left + RIGHT);
+            } else {
+                top = copyNode(this, right, 0, getLong(right + RIGHT));
+                link = LEFT;
+                right = getLong(right + LEFT);
+            }
+            if (hole == 0)
+                root = top;
+            else
+                putLong(hole, top);
+            hole = top + link;
+        }
+        long rest = left != 0 ? left : right;
+        if (hole == 0)
+            return rest;
+        putLong(hole, rest);
+        return root;
+    }
+
+    /**
+     * Finds the node holding value
+     *
+     * @param value the value
+     * @return its offset, 0 if not found
+     */
+    private long find(T value) {
+        long node = getLong(directory(index(value)));
+        while (node != 0) {
+            int diff = value.compareTo(valueAt(node));
+            if (diff == 0)
+                return node;
+            node = getLong(node + (diff < 0 ? LEFT : RIGHT));
+        }
+        return node;
+    }
+
+    /**
+     * Stores node at depth in path, growing it as needed
+     *
+     * @param depth the depth
+     * @param node the node
+     * @param left true if the walk goes on to the left
+     */
+    private void record(int depth, long node, boolean left) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
+            wentLeft = Arrays.copyOf(wentLeft, depth * 2);
+        }
+        path[depth] = node;
+        wentLeft[depth] = left;
+    }
+
+    /**
+     * Appends a change to the log, unless it is being replayed
+     *
+     * @param op LOG_ADD or LOG_REMOVE
+     * @param value the value
+     */
+    private void log(byte op, T value) {
+        if (replaying)
+            return;
+
+        int bytes = codec.size(value);
+        if (logBuffer.capacity() < LOG_HEADER + bytes)
+            logBuffer = ByteBuffer.allocate(Math.max(LOG_HEADER + bytes, logBuffer.capacity() * 2));
+        logBuffer.clear();
+        logBuffer.put(op).putInt(bytes);
+        codec.write(value, logBuffer);
+        logBuffer.flip();
+        try {
+            while (logBuffer.hasRemaining())
+                log.write(logBuffer);
+            if (sync)
+                log.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Bucket of value: the mixed hash code masked by the directory length
+     *
+     * @param value the value
+     * @return the bucket
+     */
+    private int index(T value) {
+        return HashTable.spread(value.hashCode()) & (length - 1);
+    }
+
+    /**
+     * Offset of the root of bucket b
+     *
+     * @param b the bucket
+     * @return the offset
+     */
+    private long directory(int b) {
+        return HEADER + 8L * b;
+    }
+
+    /**
+     * Offset of the root of bucket b as of the last checkpoint
+     *
+     * @param b the bucket
+     * @return the offset
+     */
+    private long checkpointDirectory(int b) {
+        return HEADER + 8L * (length + b);
+    }
+
+    /**
+     * Offset of the first node
+     *
+     * @return the offset
+     */
+    private long nodesStart() {
+        return HEADER + 16L * length;
+    }
+
+    /**
+     * Writes a new leaf holding value
+     *
+     * @param value the value
+     * @return its offset
+     */
+    private long newNode(T value) {
+        int bytes = codec.size(value);
+        long node = alloc(VALUE + bytes);
+        putLong(node + LEFT, 0);//space given back by recover() is not zeroed
+        putLong(node + RIGHT, 0);
+        putInt(node + LENGTH, bytes);
+        ByteBuffer encoded = slice(node + VALUE, bytes);
+        codec.write(value, encoded);
+        putInt(node + PRIORITY, priority(encoded.flip()));
+        return node;
+    }
+
+    /**
+     * Priority of an encoded value: its bytes hashed (FNV-1a) and mixed,
+     * so values with equal hash codes still get unrelated priorities
+     *
+     * @param bytes the value bytes
+     * @return the priority, compared unsigned
+     */
+    // O(B): B as the byte count
+    private static int priority(ByteBuffer bytes) {
+        int h = 0x811c9dc5;
+        while (bytes.hasRemaining())
+            h = (h ^ (bytes.get() & 0xff)) * 0x01000193;
+        return HashTable.spread(h);
+    }
+
+    /**
+     * Writes a copy of a node of from with new links, copying the value bytes
+     *
+     * @param from the table holding the node
+     * @param node the node
+     * @param left the new left link
+     * @param right the new right link
+     * @return the offset of the copy
+     */
+    private long copyNode(MappedHashTable<T> from, long node, long left, long right) {
+        int bytes = from.getInt(node + LENGTH);
+        long copy = alloc(VALUE + bytes);//may remap, so slice afterwards
+        putLong(copy + LEFT, left);
+        putLong(copy + RIGHT, right);
+        putInt(copy + LENGTH, bytes);
+        putInt(copy + PRIORITY, from.getInt(node + PRIORITY));
+        slice(copy + VALUE, bytes).put(from.slice(node + VALUE, bytes));
+        return copy;
+    }
+
+    /**
+     * Decodes the value of a node
+     *
+     * @param node the node
+     * @return the value
+     */
+    private T valueAt(long node) {
+        return codec.read(slice(node + VALUE, getInt(node + LENGTH)));
+    }
+
+    /**
+     * Reserves bytes at the end, 8-byte aligned and within one segment
+     *
+     * @param bytes the record size
+     * @return the offset
+     */
+    private long alloc(int bytes) {
+        bytes = (bytes + 7) & ~7;
+        if (bytes > segmentSize)
+            throw new IllegalArgumentException("record of " + bytes + " bytes is bigger than a segment");
+        if (end / segmentSize != (end + bytes - 1) / segmentSize)
+            end = (end / segmentSize + 1) * segmentSize;//skip the rest of the segment
+        long offset = end;
+        end += bytes;
+        try {
+            ensure(end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return offset;
+    }
+
+    /**
+     * Maps the file up to at least limit bytes, growing it by doubling
+     * The last segment is remapped as it grows until it is full
+     *
+     * @param limit the byte count
+     * @throws IOException if mapping fails
+     */
+    private void ensure(long limit) throws IOException {
+        if (limit <= mapped)
+            return;
+
+        long target = Math.max(limit, Math.max(mapped * 2, 1 << 16));
+        target = (target + 4095) & ~4095L;
+        int count = (int) ((target + segmentSize - 1) / segmentSize);
+        int first = Math.max(segments.length - 1, 0);//the last one may be partial
+        segments = Arrays.copyOf(segments, count);
+        for (int i = first; i < count; i++) {
+            long start = (long) i * segmentSize;
+            segments[i] = data.map(FileChannel.MapMode.READ_WRITE, start, Math.min(segmentSize, target - start));
+        }
+        mapped = target;
+    }
+
+    private long getLong(long offset) {
+        return segments[(int) (offset / segmentSize)].getLong((int) (offset % segmentSize));
+    }
+
+    private void putLong(long offset, long value) {
+        segments[(int) (offset / segmentSize)].putLong((int) (offset % segmentSize), value);
+    }
+
+    private int getInt(long offset) {
+        return segments[(int) (offset / segmentSize)].getInt((int) (offset % segmentSize));
+    }
+
+    private void putInt(long offset, int value) {
+        segments[(int) (offset / segmentSize)].putInt((int) (offset % segmentSize), value);
+    }
+
+    /**
+     * View of bytes within one segment
+     *
+     * @param offset the offset
+     * @param bytes the byte count
+     * @return the view, positioned at offset
+     */
+    private ByteBuffer slice(long offset, int bytes) {
+        return segments[(int) (offset / segmentSize)].slice((int) (offset % segmentSize), bytes);
+    }
+
+    /**
+     * Returns an array of all values, in toArray order of every bucket in turn
+     *
+     * @return the object[]
+     */
+    // O(N+M): N as the number of values; M as the directory length
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        int[] i = {0};
+        forEachWhile(value -> {
+            array[i[0]++] = value;
+            return true;
+        });
+        return array;
+    }
+
+    /**
+     * Applies action to the values, bucket by bucket in pre-order,
+     * until it returns false
+     *
+     * @param action the action
+     * @return true if every value was visited, false if the action stopped early
+     */
+    // O(N+M): N as the number of values; M as the directory length
+    public boolean forEachWhile(Predicate<? super T> action) {
+        for (Iterator<T> it = iterator(); it.hasNext(); ) {
+            if (!action.test(it.next()))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Iterates the values in toArray order, decoding them one at a time
+     * Fail-fast: once the table is changed, next() throws a
+     * ConcurrentModificationException
+     *
+     * @return the iterator
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final int expectedModCount = modCount;
+            private long[] stack = new long[8];//right subtrees still to visit
+            private int top = 0;
+            private int bucket = 0;
+
+            public boolean hasNext() {
+                while (top == 0 && bucket < length) {
+                    long root = getLong(directory(bucket++));
+                    if (root != 0)
+                        stack[top++] = root;
+                }
+                return top > 0;
+            }
+
+            public T next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (!hasNext())
+                    throw new NoSuchElementException();
+
+                long node = stack[--top];
+                if (top + 2 > stack.length)
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                long right = getLong(node + RIGHT);
+                long left = getLong(node + LEFT);
+                if (right != 0)
+                    stack[top++] = right;
+                if (left != 0)
+                    stack[top++] = left;
+                return valueAt(node);
+            }
+        };
+    }
+
+    /**
+     * Creates a new, empty in-memory HashTable for expectedSize values
+     * Results of set operations on a mapped set are not persistent;
+     * open() another file for that
+     *
+     * @param expectedSize the expected number of values
+     * @return the empty table
+     */
+    public HashTable<T> newEmpty(int expectedSize) {
+        return HashTable.withExpectedSize(expectedSize);
+    }
+
+    /**
+     * Return a string representation of all values, in toArray order
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        forEachWhile(value -> s.append(value).append(' ') != null);
+        return s.toString().trim();
+    }
+
+
+    //------------------------------
+    // Main Method For Your Testing
+    //------------------------------
+    public static void main(String[] args) throws IOException {
+        Path dir = Files.createTempDirectory("mapped");
+        Path file = dir.resolve("set");
+        defaultSegmentSize = 1 << 16;//small segments, so records have to skip ahead
+        java.util.Random rnd = new java.util.Random(7);
+
+        //add, contains and remove against a java.util.HashSet, with deep chains
+        MappedHashTable<Integer> t = MappedHashTable.open(file, 100, SnapshotCodec.INTEGER);
+        java.util.HashSet<Integer> reference = new java.util.HashSet<>();
+        boolean ok = t.getLength() == 128 && t.size() == 0 && !t.contains(1) && !t.add(null);
+        for (int i = 0; i < 20000; i++) {
+            int v = rnd.nextInt(5000);
+            ok = ok && (i % 3 == 0 ? t.remove(v) == reference.remove(v) : t.add(v) == reference.add(v));
+        }
+        for (int v = -10; v < 5010; v++)
+            ok = ok && t.contains(v) == reference.contains(v);
+        ok = ok && t.size() == reference.size() && t.toArray().length == reference.size()
+                && new java.util.HashSet<>(java.util.Arrays.asList(t.toArray())).equals(reference)
+                && t.segments.length > 1;
+        if (ok){
+            System.out.println("Yay 1");
+        }
+
+        //reopening maps the file again, without a log to replay
+        String before = t.toString();
+        t.close();
+        t = MappedHashTable.open(file, 0, SnapshotCodec.INTEGER);
+        ok = t.size() == reference.size() && t.toString().equals(before) && Files.size(logPath(file)) == 0;
+        if (ok){
+            System.out.println("Yay 2");
+        }
+
+        //a crash after the last checkpoint: a second opener recovers from
+        //the checkpoint and the log, dropping a torn last record
+        for (int i = 0; i < 3000; i++) {
+            int v = rnd.nextInt(5000);
+            if (i % 2 == 0)
+                t.remove(v);
+            else
+                t.add(v);
+        }
+        before = t.toString();
+        int size = t.size();
+        for (int b = 0; b < t.length; b++)
+            t.putLong(t.directory(b), 0);//as if these writes never reached the disk
+        t.log.write(ByteBuffer.wrap(new byte[] {LOG_ADD, 0, 0}));
+        MappedHashTable<Integer> recovered = MappedHashTable.open(file, 0, SnapshotCodec.INTEGER);
+        t.log.close();//the crashed table is gone without a checkpoint
+        t.data.close();
+        ok = recovered.size() == size && recovered.toString().equals(before) && Files.size(logPath(file)) == 0;
+        if (ok){
+            System.out.println("Yay 3");
+        }
+
+        //compaction drops the replaced nodes and keeps the trees
+        long used = recovered.usedBytes();
+        recovered.compact();
+        ok = recovered.usedBytes() < used / 4 && recovered.toString().equals(before)
+                && recovered.size() == size && recovered.add(-1) && recovered.contains(-1);
+        recovered.close();
+        if (ok){
+            System.out.println("Yay 4");
+        }
+
+        //variable-length values and a synced log, through a Set
+        Path words = dir.resolve("words");
+        MappedHashTable<String> w = MappedHashTable.open(words, 1000, SnapshotCodec.STRING, true);
+        Set<String> set = new Set<>(w);
+        for (int i = 0; i < 1000; i++)
+            set.add("word" + i + "\u00e9".repeat(i % 40));
+        Set<String> copy = set.union(new Set<>());//in memory
+        w.close();
+        w = MappedHashTable.open(words, 0, SnapshotCodec.STRING);
+        ok = w.size() == 1000 && w.contains("word999" + "\u00e9".repeat(999 % 40)) && !w.contains("word1000")
+                && copy.size() == 1000 && w.remove("word5" + "\u00e9".repeat(5)) && w.size() == 999;
+        w.close();
+        if (ok){
+            System.out.println("Yay 5");
+        }
+
+        //sorted adds and removes keep the chains shallow and the file small
+        Path sorted = dir.resolve("sorted");
+        MappedHashTable<Integer> seq = MappedHashTable.open(sorted, 100, SnapshotCodec.INTEGER);
+        for (int v = 0; v < 32768; v++)
+            seq.add(v);
+        int height = seq.maxHeight();
+        long grown = seq.usedBytes();
+        for (int v = 0; v < 32768; v += 2)
+            seq.remove(v);
+        ok = seq.getLength() == 128 && height > 0 && height <= 40 && grown < 16 << 20
+                && seq.size() == 16384 && seq.contains(32767) && !seq.contains(32766)
+                && seq.maxHeight() > 0 && seq.maxHeight() <= 40;
+        for (int v = 0; v < 32768; v++)
+            ok = ok && seq.contains(v) == (v % 2 == 1);
+        seq.close();
+        if (ok){
+            System.out.println("Yay 6");
+        }
+
+        for (Path p : new Path[] {file, logPath(file), words, logPath(words), sorted, logPath(sorted)})
+            Files.deleteIfExists(p);
+        Files.deleteIfExists(dir);
+    }
+
+}
@@ -0,0 +1,341 @@
+package forestchaining;
+
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * A flat open-addressing hash table with linear probing.
+ * Values and their mixed hash codes live in two parallel arrays, so a lookup
+ * walks consecutive slots and only calls compareTo when the hashes match.
+ * Removal shifts the following run back instead of leaving tombstones.
+ *
+ * @param <T> the generic type
+ */
+class OpenAddressingTable<T extends Comparable<T>> implements SetStorage<T> {
+
+
+    static private int minLength = 2;
+
+    // grow when more than 60% of the slots are used
+    static private final int maxLoad = 60;
+
+    private int size = 0;
+    private Object[] keys;//null marks an empty slot
+    private int[] hashes;//spread hash code of keys[i]
+    private int modCount = 0;//adds and removes, for fail-fast iteration
+
+    /**
+     * Instantiates a new table with room for expectedSize values
+     *
+     * @param expectedSize the expected number of values
+     */
+    public OpenAddressingTable(int expectedSize) {
+        int length = minLength;
+        while (length < Integer.MAX_VALUE / 200 && (long) expectedSize * 100 > (long) length * maxLoad)
+            length *= 2;//power of two, large enough for expectedSize
+        keys = new Object[length];
+        hashes = new int[length];
+    }
+
+    /**
+     * Return the table length
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return keys.length;
+    }
+
+    /**
+     * Return the number of values in the table
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot holding value, or the empty slot ending its probe run
+     *
+     * @param value the value
+     * @param hash the spread hash of value
+     * @return the slot index
+     */
+    @SuppressWarnings("unchecked")
+    private int find(T value, int hash) {
+        int mask = keys.length - 1;
+        int i = hash & mask;
+        while (keys[i] != null) {
+            if (hashes[i] == hash && ((T) keys[i]).compareTo(value) == 0)
+                return i;
+            i = (i + 1) & mask;//linear probing
+        }
+        return i;
+    }
+
+    /**
+     * Adds value into the table
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    // Average case: O(1), Worst case: O(N)
+    public boolean add(T value) {
+        if (value == null)
+            return false;
+
+        int hash = HashTable.spread(value.hashCode());
+        int i = find(value, hash);
+        if (keys[i] != null)
+            return false;//duplicate
+
+        keys[i] = value;
+        hashes[i] = hash;
+        size++;
+        modCount++;
+
+        if ((long) size * 100 > (long) keys.length * maxLoad)
+            resize(keys.length * 2);
+        return true;
+    }
+
+    /**
+     * Checks whether value is in the table
+     *
+     * @param value the value
+     * @return true, if present
+     */
+    // Average case: O(1), Worst case: O(N)
+    public boolean contains(T value) {
+        if (value == null)
+            return false;
+        return keys[find(value, HashTable.spread(value.hashCode()))] != null;
+    }
+
+    /**
+     * Removes the value, shifting later values of its run back
+     * so no tombstone is left behind
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    // Average case: O(1), Worst case: O(N)
+    public boolean remove(T value) {
+        if (value == null)
+            return false;
+
+        int i = find(value, HashTable.spread(value.hashCode()));
+        if (keys[i] == null)
+            return false;
+
+        int mask = keys.length - 1;
+        int hole = i;
+        for (int j = (i + 1) & mask; keys[j] != null; j = (j + 1) & mask) {
+            int home = hashes[j] & mask;
+            // j can fill the hole unless its home slot lies in (hole, j]
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                hashes[hole] = hashes[j];
+                hole = j;
+            }
+        }
+        keys[hole] = null;
+        size--;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Adds every value of c, growing the arrays at most once beforehand
+     *
+     * @param c the values
+     * @return the number of values added
+     */
+    public int addAll(Collection<? extends T> c) {
+        long needed = (long) size + c.size();
+        int length = keys.length;
+        while (length < (1 << 30) && needed * 100 > (long) length * maxLoad)
+            length *= 2;
+        if (length > keys.length) {
+            resize(length);
+            modCount++;
+        }
+
+        return SetStorage.super.addAll(c);
+    }
+
+    /**
+     * Moves every value into new arrays of the given length
+     *
+     * @param newLength the new length, a power of two
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int newLength) {
+        Object[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        keys = new Object[newLength];
+        hashes = new int[newLength];
+
+        int mask = newLength - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int j = oldHashes[i] & mask;
+                while (keys[j] != null)
+                    j = (j + 1) & mask;
+                keys[j] = oldKeys[i];
+                hashes[j] = oldHashes[i];
+            }
+        }
+    }
+
+    /**
+     * Returns an array of all values in slot order
+     *
+     * @return the object[]
+     */
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        int index = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null)
+                array[index++] = keys[i];
+        }
+        return array;
+    }
+
+    /**
+     * Applies action to the values in slot order until it returns false
+     *
+     * @param action the action
+     * @return true if every value was visited, false if the action stopped early
+     */
+    @SuppressWarnings("unchecked")
+    public boolean forEachWhile(Predicate<? super T> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null && !action.test((T) keys[i]))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Iterates the values in slot order
+     * Fail-fast: once the table is added to or removed from,
+     * next() throws a ConcurrentModificationException
+     *
+     * @return the iterator
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final Object[] table = keys;
+            private final int expectedModCount = modCount;
+            private int next = 0;//next slot to look at
+
+            public boolean hasNext() {
+                while (next < table.length && table[next] == null)
+                    next++;
+                return next < table.length;
+            }
+
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return (T) table[next++];
+            }
+        };
+    }
+
+    /**
+     * Creates a new, empty table with room for expectedSize values
+     *
+     * @param expectedSize the expected number of values
+     * @return the empty table
+     */
+    public OpenAddressingTable<T> newEmpty(int expectedSize) {
+        return new OpenAddressingTable<>(expectedSize);
+    }
+
+    /**
+     * Return a string representation of all values in slot order
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null)
+                s.append(keys[i]).append(' ');
+        }
+        return s.toString().trim();
+    }
+
+
+    //--------------------------------
+    // Main Method For Your Testing
+    //--------------------------------
+    public static void main(String[] args) {
+        OpenAddressingTable<String> t = new OpenAddressingTable<>(0);
+
+        //empty table
+        if (t.getLength() == 2 && t.size() == 0 && t.toString().equals("") && !t.contains("a")) {
+            System.out.println("Yay 1");
+        }
+
+        //add, contains, remove
+        if (t.add("a") && t.add("c") && t.add("computer") && !t.add("c") && !t.add(null)
+                && t.size() == 3 && t.getLength() == 8 && t.contains("computer") && !t.contains("cs")
+                && !t.remove("data") && t.remove("c") && !t.contains("c") && t.contains("a")
+                && t.size() == 2 && t.toArray().length == 2) {
+            System.out.println("Yay 2");
+        }
+
+        //presized
+        t = new OpenAddressingTable<>(1000);
+        if (t.getLength() == 2048) {
+            System.out.println("Yay 3");
+        }
+
+        //random work against HashTable, with lots of colliding runs
+        OpenAddressingTable<Integer> oa = new OpenAddressingTable<>(0);
+        HashTable<Integer> ht = new HashTable<>(5);
+        Random r = new Random(0);
+        boolean ok = true;
+        for (int i = 0; i < 100000; i++) {
+            int v = r.nextInt(3000) * 64;
+            if (r.nextBoolean())
+                ok = ok && oa.add(v) == ht.add(v);
+            else
+                ok = ok && oa.remove(v) == ht.remove(v);
+            ok = ok && oa.size() == ht.size();
+        }
+        for (int v = 0; v < 3000 * 64; v += 32)
+            ok = ok && oa.contains(v) == ht.contains(v);
+        if (ok) {
+            System.out.println("Yay 4");
+        }
+
+        //iteration sees every value once, and fails fast after a change
+        int count = 0;
+        for (Integer v : oa)
+            ok = ok && ht.contains(v) && ++count > 0;
+        java.util.Iterator<Integer> it = oa.iterator();
+        it.next();
+        oa.add(-1);
+        try {
+            it.next();
+            ok = false;
+        } catch (java.util.ConcurrentModificationException e) {
+            // expected
+        }
+        if (ok && count == ht.size() && java.util.stream.StreamSupport.stream(oa.spliterator(), false).count() == oa.size()) {
+            System.out.println("Yay 5");
+        }
+    }
+
+}
@@ -1,23 +1,62 @@
+package forestchaining;
+
+import java.util.Objects;
+
 /**
  * A generic class representing two values as a pair
+ * Immutable and ordered by first value, then second, so it can be a
+ * composite key of a HashTable or Set; the hash code is mixed once, in
+ * the constructor. IntPair and LongPair hold primitive pairs unboxed
  *
  * @param <T1> the generic type of first value
  * @param <T2> the generic type of second value
  */
-class Pair<T1, T2> {
+class Pair<T1 extends Comparable<? super T1>, T2 extends Comparable<? super T2>> implements Comparable<Pair<T1, T2>> {
 
-    T1 first;
-    T2 second;
+    final T1 first;
+    final T2 second;
+    private final int hash;
 
     /**
      * Instantiates a new pair
      *
      * @param v1 the value 1
      * @param v2 the value 2
+     * @throws NullPointerException if either value is null
      */
     public Pair(T1 v1, T2 v2) {
-        this.first = v1;
-        this.second = v2;
+        this.first = Objects.requireNonNull(v1, "first");
+        this.second = Objects.requireNonNull(v2, "second");
+        this.hash = HashTable.spread(v1.hashCode() * 0x9e3779b9 + v2.hashCode());//golden-ratio multiplier keeps <a,b> and <b,a> apart
+    }
+
+    /**
+     * Return the first value
+     *
+     * @return the value
+     */
+    public T1 getFirst() {
+        return first;
+    }
+
+    /**
+     * Return the second value
+     *
+     * @return the value
+     */
+    public T2 getSecond() {
+        return second;
+    }
+
+    /**
+     * Compares by first value, then by second value
+     *
+     * @param other the other pair
+     * @return negative, zero or positive as this pair is before, equal to or after other
+     */
+    public int compareTo(Pair<T1, T2> other) {
+        int diff = first.compareTo(other.first);
+        return diff != 0 ? diff : second.compareTo(other.second);
     }
 
 
@@ -38,11 +77,12 @@ class Pair<T1, T2> {
      /**
      * java.lang.Object#equals()
      */
-    @SuppressWarnings("unchecked")
     public boolean equals(Object o) {
+        if (o == this)
+            return true;
         if (o instanceof Pair) {
-            Pair<T1, T2> pair = (Pair<T1, T2>) o;
-            return this.first.equals(pair.first) && this.second.equals(pair.second);
+            Pair<?, ?> pair = (Pair<?, ?>) o;
+            return hash == pair.hash && first.equals(pair.first) && second.equals(pair.second);
         }
 
         return false;
@@ -54,12 +94,9 @@ class Pair<T1, T2> {
      *
      * java.lang.Object#hashCode()
      */
+    // O(1): computed by the constructor
     public int hashCode() {
-
-        int result = 1;
-        result = 31 * result + first.hashCode();//following contract with use of prime to create hashcode
-        result = 31 * result + second.hashCode();//following contract with use of prime to create hashcode
-        return result;
+        return hash;
     }
 
 
@@ -103,7 +140,7 @@ class Pair<T1, T2> {
         //    after you are done with Set
 
 
-		Set<Integer> hashCodes = new Set<>();
+		IntForestSet hashCodes = new IntForestSet();//no boxing of the hash codes
 		int repeat = 0;
 
 		for (int i=-10; i<10; i++){
@@ -121,6 +158,25 @@ class Pair<T1, T2> {
 		// report the percentage of repeating hash code
 		System.out.printf("Percentage of repeat: %.3f%%\n",(double)repeat/(20*20-1)*100);
 
+        //ordering, and pairs as composite keys
+        Set<Pair<String, Integer>> keys = new Set<>();
+        for (int i = 0; i < 1000; i++)
+            keys.add(new Pair<>("k" + i % 10, i));
+        boolean ok = keys.size() == 1000 && keys.contains(new Pair<>("k3", 13)) && !keys.contains(new Pair<>("k3", 14))
+                && keys.first().equals(new Pair<>("k0", 0)) && keys.last().equals(new Pair<>("k9", 999))
+                && new Pair<>("a", 2).compareTo(new Pair<>("b", 1)) < 0 && new Pair<>("a", 2).compareTo(new Pair<>("a", 1)) > 0
+                && !new Pair<>(1, 2).equals(new Pair<>(2, 1)) && new Pair<>(1, 2).hashCode() != new Pair<>(2, 1).hashCode()
+                && new Pair<>("x", 1).getFirst().equals("x") && new Pair<>("x", 1).getSecond() == 1;
+        try {
+            new Pair<>(null, 1);
+            ok = false;
+        } catch (NullPointerException e) {
+            // expected
+        }
+        if (ok){
+            System.out.println("Yay 4");
+        }
+
 
 
     }
@@ -0,0 +1,493 @@
+package forestchaining;
+
+import java.util.Iterator;
+import java.util.function.Predicate;
+
+/**
+ * A path-copying binary search tree
+ * Nodes are never changed once they are reachable from root:
+ * insert and remove copy the O(H) nodes on the search path and then
+ * publish the new root with one volatile write. A reader that loaded root
+ * therefore walks a consistent tree without any lock, even while a writer
+ * is removing a node with two children
+ * Writers still have to be serialized by the caller
+ *
+ * @param <T> the generic type
+ */
+class PersistentBST<T extends Comparable<T>> implements Chain<T> {
+
+
+    private volatile BalancedBST.AVLNode<T> root;
+    private int size;//only read and written by the (single) writer
+    private final boolean balanced;//rebalance the copied path, AVL style
+    int generation;//HashTable snapshot generation this tree was made in
+
+    /**
+     * Instantiates a new empty tree
+     *
+     * @param balanced true to keep the tree AVL-balanced
+     */
+    public PersistentBST(boolean balanced) {
+        this.balanced = balanced;
+    }
+
+    /**
+     * A tree holding the same values, sharing every node with this one
+     * Updates to either copy only their own search path, so both stay valid
+     *
+     * @param generation the generation of the copy
+     * @return the copy
+     */
+    // O(1)
+    PersistentBST<T> copy(int generation) {
+        PersistentBST<T> copy = new PersistentBST<>(balanced);
+        copy.root = root;
+        copy.size = size;
+        copy.generation = generation;
+        return copy;
+    }
+
+    /**
+     * Total elements in the tree
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if value is present in the tree, lock-free
+     *
+     * @param value is the value
+     * @return true if value is in tree, false if value is not in tree or if value is null
+     */
+    // O(H): H as the tree height
+    public boolean contains(T value) {
+        if (value == null)
+            return false;
+
+        SimpleBST.Node<T> current = root;//one volatile read, the rest is immutable
+
+        while (current != null) {
+            int diff = current.data.compareTo(value);
+            if (diff == 0)
+                return true;
+            current = diff < 0 ? current.right : current.left;
+        }
+        return false;
+    }
+
+    /**
+     * Looks value up like contains, counting the compareTo calls it takes
+     *
+     * @param value is the value
+     * @return the number of compareTo calls if value is in tree,
+     * or its bitwise complement if it is not
+     */
+    public int probe(T value) {
+        if (value == null)
+            return ~0;
+
+        SimpleBST.Node<T> current = root;
+        int compares = 0;
+        while (current != null) {
+            compares++;
+            int diff = current.data.compareTo(value);
+            if (diff == 0)
+                return compares;
+            current = diff < 0 ? current.right : current.left;
+        }
+        return ~compares;
+    }
+
+    /**
+     * Inserts value into tree by copying the search path
+     * No duplicates allowed; no null value allowed
+     * Iterative, so a degenerate (unbalanced) chain can't overflow the stack
+     *
+     * @param value is the value
+     * @return true, for a successful insertion
+     */
+    // O(H): H as the tree height, with O(H) new nodes
+    public boolean insert(T value) {
+        if (value == null)
+            return false;
+
+        BalancedBST.AVLNode<T> oldRoot = root;
+        BalancedBST.AVLNode<T>[] path = newPath(oldRoot);
+        int depth = 0;
+        boolean wentLeft = false;
+        BalancedBST.AVLNode<T> t = oldRoot;
+        while (t != null) {
+            int diff = value.compareTo(t.data);
+            if (diff == 0)
+                return false;//duplicate, nothing was copied
+            path[depth++] = t;
+            wentLeft = diff < 0;
+            t = wentLeft ? left(t) : right(t);
+        }
+
+        size++;
+        root = copyPath(path, depth, wentLeft, node(value, null, null));//publish
+        return true;
+    }
+
+    /**
+     * Removes value from tree by copying the search path
+     * The two-child case builds a new node holding the predecessor
+     * instead of overwriting t.data the way SimpleBST does
+     *
+     * @param value is the value to remove
+     * @return true for a successful removal
+     */
+    // O(H): H as the tree height, with O(H) new nodes
+    public boolean remove(T value) {
+        if (value == null)
+            return false;
+
+        BalancedBST.AVLNode<T> oldRoot = root;
+        BalancedBST.AVLNode<T>[] path = newPath(oldRoot);
+        int depth = 0;
+        boolean wentLeft = false;
+        BalancedBST.AVLNode<T> t = oldRoot;
+        while (t != null) {
+            int diff = value.compareTo(t.data);
+            if (diff == 0)
+                break;
+            path[depth++] = t;
+            wentLeft = diff < 0;
+            t = wentLeft ? left(t) : right(t);
+        }
+        if (t == null)
+            return false;
+
+        BalancedBST.AVLNode<T> replacement;
+        if (t.left == null)
+            replacement = right(t);
+        else if (t.right == null)
+            replacement = left(t);
+        else {// Two children
+            // the right spine of the left subtree goes after the ancestors in path
+            int spine = depth;
+            BalancedBST.AVLNode<T> max = left(t);
+            while (max.right != null) {
+                path[spine++] = max;
+                max = right(max);
+            }
+            BalancedBST.AVLNode<T> newLeft = left(max);//the spine without max
+            for (int i = spine - 1; i >= depth; i--) {
+                newLeft = join(path[i].data, left(path[i]), newLeft);
+            }
+            replacement = join(max.data, newLeft, right(t));
+        }
+
+        size--;
+        root = copyPath(path, depth, wentLeft, replacement);//publish
+        return true;
+    }
+
+    /**
+     * Scratch array for a search path and a right spine below it,
+     * which together hold at most height + 1 nodes
+     *
+     * @param t the root
+     * @return the array
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> BalancedBST.AVLNode<T>[] newPath(BalancedBST.AVLNode<T> t) {
+        return new BalancedBST.AVLNode[height(t) + 1];
+    }
+
+    /**
+     * Copies the recorded ancestors bottom-up over a new child
+     * Above the bottom one, the walk went from path[i] to path[i + 1],
+     * so the side is found by identity
+     *
+     * @param path the ancestors, from the root down
+     * @param depth the number of ancestors
+     * @param bottomLeft the walk left path[depth - 1] to the left
+     * @param child the new subtree below them, null for none
+     * @return the new root
+     */
+    private BalancedBST.AVLNode<T> copyPath(BalancedBST.AVLNode<T>[] path, int depth, boolean bottomLeft,
+                                            BalancedBST.AVLNode<T> child) {
+        boolean wentLeft = bottomLeft;
+        for (int i = depth - 1; i >= 0; i--) {
+            BalancedBST.AVLNode<T> t = path[i];
+            child = wentLeft ? join(t.data, child, right(t)) : join(t.data, left(t), child);
+            if (i > 0)
+                wentLeft = path[i - 1].left == t;
+        }
+        return child;
+    }
+
+    /**
+     * Creates a node over two subtrees, rebalancing (with new nodes only)
+     * if the tree is balanced and the heights differ by more than one
+     *
+     * @param data the data
+     * @param l the left subtree
+     * @param r the right subtree
+     * @return the new subtree root
+     */
+    private BalancedBST.AVLNode<T> join(T data, BalancedBST.AVLNode<T> l, BalancedBST.AVLNode<T> r) {
+        if (balanced) {
+            if (height(l) > height(r) + 1) {//left heavy
+                if (height(left(l)) >= height(right(l)))//single right rotation
+                    return node(l.data, left(l), node(data, right(l), r));
+                BalancedBST.AVLNode<T> lr = right(l);//left-right case
+                return node(lr.data, node(l.data, left(l), left(lr)), node(data, right(lr), r));
+            }
+            if (height(r) > height(l) + 1) {//right heavy
+                if (height(right(r)) >= height(left(r)))//single left rotation
+                    return node(r.data, node(data, l, left(r)), right(r));
+                BalancedBST.AVLNode<T> rl = left(r);//right-left case
+                return node(rl.data, node(data, l, left(rl)), node(r.data, right(rl), right(r)));
+            }
+        }
+        return node(data, l, r);
+    }
+
+    /**
+     * Creates a node, the constructor sets its height and leaves
+     *
+     * @param data the data
+     * @param l the left subtree
+     * @param r the right subtree
+     * @return the node
+     */
+    private static <T> BalancedBST.AVLNode<T> node(T data, BalancedBST.AVLNode<T> l, BalancedBST.AVLNode<T> r) {
+        return new BalancedBST.AVLNode<>(data, l, r);
+    }
+
+    private static int height(BalancedBST.AVLNode<?> t) {
+        return SimpleBST.height(t);
+    }
+
+    private static <T> BalancedBST.AVLNode<T> left(BalancedBST.AVLNode<T> t) {
+        return (BalancedBST.AVLNode<T>) t.left;
+    }
+
+    private static <T> BalancedBST.AVLNode<T> right(BalancedBST.AVLNode<T> t) {
+        return (BalancedBST.AVLNode<T>) t.right;
+    }
+
+    /**
+     * Returns the height of the tree
+     * Returns -1 for null trees
+     *
+     * @return the height
+     */
+    // O(1): heights are kept in the nodes
+    public int height() {
+        return height(root);
+    }
+
+    /**
+     * Returns the number of leaf nodes in the tree,
+     * counted the same way as SimpleBST
+     *
+     * @return the number of leaf nodes
+     */
+    // O(1): leaf counts are kept in the nodes
+    public int numLeaves() {
+        SimpleBST.Node<T> t = root;
+        return t == null ? 0 : t.leaves;
+    }
+
+    /**
+     * Return an array representation of all values
+     * following pre-order traversal
+     *
+     * @return the object[]
+     */
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        int i = 0;
+        for (Iterator<T> it = iterator(); it.hasNext(); )
+            array[i++] = it.next();
+        return array;
+    }
+
+    /**
+     * Applies action to the values in pre-order until it returns false
+     * Walks the tree as of the call, lock-free
+     *
+     * @param action the action
+     * @return true if every value was visited, false if the action stopped early
+     */
+    public boolean forEachWhile(Predicate<? super T> action) {
+        for (Iterator<T> it = iterator(); it.hasNext(); ) {
+            if (!action.test(it.next()))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Iterates the values in pre-order over the tree as of the call, lock-free
+     *
+     * @return the iterator
+     */
+    public Iterator<T> iterator() {
+        return new SimpleBST.PreOrderIterator<>(root);//one volatile read, the rest is immutable
+    }
+
+    /**
+     * Iterates the values in order over the tree as of the call, lock-free
+     *
+     * @return the iterator
+     */
+    public Iterator<T> sortedIterator() {
+        return new SimpleBST.InOrderIterator<>(root);
+    }
+
+    /**
+     * Fills the empty tree with values[from..to) in pre-order and
+     * publishes it with one write
+     *
+     * @param values the values
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     */
+    // O(K): K as to - from
+    public void load(Object[] values, int from, int to) {
+        size = to - from;
+        root = (BalancedBST.AVLNode<T>) SimpleBST.<T>fromPreOrder(values, from, to, true);
+    }
+
+    /**
+     * Returns the biggest value not bigger than value, lock-free
+     *
+     * @param value the value
+     * @return the floor, null if there is none
+     */
+    public T floor(T value) {
+        return SimpleBST.floor(root, value);
+    }
+
+    /**
+     * Returns the smallest value not smaller than value, lock-free
+     *
+     * @param value the value
+     * @return the ceiling, null if there is none
+     */
+    public T ceiling(T value) {
+        return SimpleBST.ceiling(root, value);
+    }
+
+    /**
+     * Returns the smallest value, lock-free
+     *
+     * @return the first value, null if empty
+     */
+    public T first() {
+        return SimpleBST.findMin(root);
+    }
+
+    /**
+     * Returns the biggest value, lock-free
+     *
+     * @return the last value, null if empty
+     */
+    public T last() {
+        return SimpleBST.findMax(root);
+    }
+
+    /**
+     * Applies action, in order, to the values in [lo, hi) of the tree
+     * as of the call until it returns false, lock-free
+     *
+     * @param lo the lowest value, inclusive
+     * @param hi the highest value, exclusive
+     * @param action the action
+     * @return true if every value in range was visited, false if the action stopped early
+     */
+    public boolean forEachInRange(T lo, T hi, Predicate<? super T> action) {
+        return SimpleBST.forEachInRange(root, lo, hi, action);
+    }
+
+    /**
+     * Inorder string representation of the tree
+     */
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (Iterator<T> it = sortedIterator(); it.hasNext(); )
+            s.append(it.next()).append(' ');
+        return s.toString().trim() + " ";
+    }
+
+
+    //------------------------------
+    // Main Method For Your Testing
+    //------------------------------
+    public static void main(String args[]){
+        PersistentBST<Integer> t = new PersistentBST<>(false);
+
+        //same tree as the SimpleBST test
+        if (t.insert(310) && !t.insert(null) && t.size() == 1 && t.height() == 0
+                && t.insert(112) && t.insert(440) && t.insert(330) && !t.insert(330)
+                && t.size() == 4 && t.height() == 2 && t.numLeaves() == 2
+                && t.toString().equals("112 310 330 440 ") && t.toArray()[0].equals(310)){
+            System.out.println("Yay 1");
+        }
+
+        //an update never touches the nodes a reader may hold
+        SimpleBST.Node<Integer> before = t.root;
+        SimpleBST.Node<Integer> right = before.right;
+        t.insert(465);
+        t.insert(321);
+        if (before.right == right && right.right == null && t.root != before
+                && t.root.left == before.left && t.contains(465) && t.size() == 6){
+            System.out.println("Yay 2");
+        }
+
+        //remove with two children (440): a new node takes the predecessor
+        before = t.root;
+        SimpleBST.Node<Integer> old440 = before.right;
+        if (t.remove(440) && !t.remove(440) && old440.data == 440 && !t.contains(440)
+                && t.root.right.data == 330 && t.contains(321) && t.size() == 5
+                && t.toString().equals("112 310 321 330 465 ")){
+            System.out.println("Yay 3");
+        }
+
+        //balanced variant stays logarithmic for sorted input
+        PersistentBST<Integer> b = new PersistentBST<>(true);
+        boolean ok = true;
+        for (int i = 0; i < 1000; i++)
+            ok = ok && b.insert(i);
+        for (int i = 0; i < 1000; i += 2)
+            ok = ok && b.remove(i);
+        for (int i = 0; i < 1000; i++)
+            ok = ok && b.contains(i) == (i % 2 == 1);
+        if (ok && b.size() == 500 && b.height() <= 9 && b.toArray().length == 500){
+            System.out.println("Yay 4");
+        }
+
+        //unbalanced and degenerate: deeper than a recursive walk could go
+        PersistentBST<Integer> d = new PersistentBST<>(false);
+        int n = 25000;
+        for (int i = 0; i < n; i++)
+            ok = ok && d.insert(2 * i);//a right spine
+        for (int i = 0; i < n - 1; i += 2)
+            ok = ok && d.insert(2 * i + 1);//left child of 2i + 2, which then has two children
+        ok = ok && d.height() == n && d.size() == n + n / 2;//the last odd value hangs below 2n - 2
+        SimpleBST.Node<Integer> old = d.root;
+        for (int i = 0; i < n - 1; i += 4)
+            ok = ok && d.remove(2 * i + 2) && !d.remove(2 * i + 2);//replaced by its predecessor 2i + 1
+        int count = 0;
+        Integer previous = null;
+        for (Iterator<Integer> it = d.sortedIterator(); it.hasNext(); count++) {
+            Integer v = it.next();
+            ok = ok && (previous == null || previous < v);
+            previous = v;
+        }
+        ok = ok && count == d.size() && d.toArray().length == d.size() && d.forEachWhile(v -> true)
+                && d.toString().startsWith("0 1 4 5 6 8 ") && old.data == 0 && old.right.data == 2;
+        if (ok){
+            System.out.println("Yay 5");
+        }
+    }
+
+}
@@ -0,0 +1,615 @@
+package forestchaining;
+
+// for addAll() only
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+//
+
+/**
+ * A Set using HashTable, or any other SetStorage engine
+ *
+ * @param <T> the generic type
+ */
+class Set<T extends Comparable<T>> implements Iterable<T> {
+
+
+    private final SetStorage<T> storage;
+
+    /**
+     * Instantiates a new empty set backed by a HashTable
+     */
+    public Set() {
+        this(new HashTable<>(5));
+    }
+
+    /**
+     * Instantiates a new empty set backed by a HashTable
+     * long enough for expectedSize values, so filling it never rehashes
+     *
+     * @param expectedSize the expected number of values
+     */
+    public Set(int expectedSize) {
+        this(HashTable.<T>withExpectedSize(expectedSize));
+    }
+
+    /**
+     * Instantiates a new set on top of the given storage engine
+     * Results of the set operations use an engine of the same kind
+     *
+     * @param storage the engine, e.g. a HashTable or an OpenAddressingTable
+     */
+    public Set(SetStorage<T> storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Return the storage engine behind this set
+     *
+     * @return the engine
+     */
+    SetStorage<T> getStorage() {
+        return storage;
+    }
+
+    /**
+     * the Size
+     *
+     * @return the size
+     */
+    public int size() {
+        return storage.size();
+    }
+
+    /**
+     * If value not present in set, add value and return true
+     *
+     * @param value is the value
+     * @return true, if successful
+     */
+    // Otherwise, do not add and return false.
+    public boolean add(T value) {
+        return storage.add(value);
+    }
+
+    /**
+     * // Return true if value in set, false otherwise
+     *
+     * @param value is the value
+     * @return true, if present
+     */
+
+    public boolean contains(T value) {
+        return storage.contains(value);
+    }
+
+    //
+    /**
+     * If value present in set, remove value and return true
+     *
+     * @param value the value
+     * @return true, if successful
+     */
+    // Otherwise return false and no change to set.
+    public boolean remove(T value) {
+        return storage.remove(value);
+    }
+
+   /**
+     *  java.lang.Object#toString()
+     */
+    public String toString() {
+        return storage.toString();
+    }
+
+    /**
+     * To array
+     *
+     * @return the object[]
+     */
+    public Object[] toArray() {
+        return storage.toArray();
+    }
+
+    /**
+     * Iterates the values in place, fail-fast for the non-concurrent engines
+     *
+     * @return the iterator
+     */
+    public Iterator<T> iterator() {
+        return storage.iterator();
+    }
+
+    /**
+     * Iterates the values in ascending compareTo order
+     * A HashTable merges its already sorted chains without copying them;
+     * other engines sort a copy
+     *
+     * @return the iterator
+     */
+    public Iterator<T> sortedIterator() {
+        return storage.sortedIterator();
+    }
+
+    /**
+     * Construct and return the set of the values in [lo, hi)
+     * HashTable chains skip the subtrees outside the range, and with its
+     * sorted index on the whole lookup is one O(log N + K) tree walk
+     *
+     * @param lo the lowest value, inclusive
+     * @param hi the highest value, exclusive
+     * @return the values in range, empty if lo or hi is null or lo >= hi
+     */
+    // Original set should not be modified.
+    public Set<T> rangeQuery(T lo, T hi) {
+        ArrayList<T> values = new ArrayList<>();
+        storage.forEachInRange(lo, hi, values::add);//add is always true
+        Set<T> set = new Set<>(storage.newEmpty(values.size()));
+        set.storage.addAll(values);
+        return set;
+    }
+
+    /**
+     * Returns the biggest value not bigger than value
+     *
+     * @param value the value
+     * @return the floor, null if there is none or value is null
+     */
+    public T floor(T value) {
+        return storage.floor(value);
+    }
+
+    /**
+     * Returns the smallest value not smaller than value
+     *
+     * @param value the value
+     * @return the ceiling, null if there is none or value is null
+     */
+    public T ceiling(T value) {
+        return storage.ceiling(value);
+    }
+
+    /**
+     * Returns the smallest value
+     *
+     * @return the first value, null if empty
+     */
+    public T first() {
+        return storage.first();
+    }
+
+    /**
+     * Returns the biggest value
+     *
+     * @return the last value, null if empty
+     */
+    public T last() {
+        return storage.last();
+    }
+
+    /**
+     * Spliterator of the storage engine; HashTable splits on bucket ranges
+     *
+     * @return the spliterator
+     */
+    public Spliterator<T> spliterator() {
+        return storage.spliterator();
+    }
+
+    /**
+     * Sequential stream over the values, without copying them
+     * Call parallel() on it to scan the buckets on several cores
+     *
+     * @return the stream
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Parallel stream over the values
+     *
+     * @return the stream
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Accept a collection of values and add them into set
+     * The storage makes room for all of them first, HashTable then
+     * builds each chain in one pass
+     *
+     * @param c the collection values
+     * @return the int
+     */
+    // Return the number of values successfully added.
+    public int addAll(Collection<? extends T> c) {
+        return storage.addAll(c);
+    }
+
+    /**
+     * Returns a set holding the values in this one right now; later
+     * changes to this set do not show in it
+     * A HashTable with path copying (see HashTable.setPathCopying) makes
+     * this O(1), sharing all but the chains changed afterwards; other
+     * engines copy. A HashTable snapshot is read-only
+     *
+     * @return the snapshot
+     */
+    public Set<T> snapshot() {
+        return new Set<>(storage.snapshot());
+    }
+
+    /**
+     * Writes a binary snapshot of the set to file, replacing it
+     * A HashTable writes its buckets as they are; other engines are
+     * copied into a HashTable first
+     *
+     * @param file the file
+     * @param codec the value encoding
+     * @throws IOException if writing fails
+     */
+    public void writeSnapshot(Path file, SnapshotCodec<T> codec) throws IOException {
+        HashTable<T> table;
+        if (storage instanceof HashTable)
+            table = (HashTable<T>) storage;
+        else {
+            table = HashTable.withExpectedSize(size());
+            storage.forEachWhile(table::add);//add is true for every distinct value
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            table.writeSnapshot(channel, codec);
+        }
+    }
+
+    /**
+     * Reads a set written by writeSnapshot
+     * The HashTable behind it comes back at its final length with its
+     * chains rebuilt block by block, so nothing is rehashed or resized
+     *
+     * @param <T> the generic type
+     * @param file the file
+     * @param codec the value encoding
+     * @return the set
+     * @throws IOException if reading fails or the file is not a snapshot
+     */
+    public static <T extends Comparable<T>> Set<T> readSnapshot(Path file, SnapshotCodec<T> codec) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Set<>(HashTable.readSnapshot(channel, codec));
+        }
+    }
+
+    /**
+     * Construct and return the intersection set of this and other
+     * Walks the smaller set in place and probes the bigger one, so the cost
+     * follows min(|this|, |other|) and nothing is copied out first
+     *
+     * @param other the other
+     * @return the intersection
+     */
+    // Original sets should not be modified.
+    public Set<T> intersection(Set<T> other) {
+        Set<T> small = size() <= other.size() ? this : other;
+        Set<T> big = small == this ? other : this;
+        Set<T> set = new Set<>(storage.newEmpty(small.size()));
+
+        small.storage.forEachWhile(value -> {
+            if (big.contains(value))
+                set.storage.add(value);
+            return true;
+        });
+
+        return set;
+    }
+
+    /**
+     * Construct and return the union set of this and other
+     * The result is sized for both sets up front, so it never rehashes
+     *
+     * @param other the other
+     * @return the union
+     */
+    // Original sets should not be modified.
+    public Set<T> union(Set<T> other) {
+        Set<T> set = new Set<>(storage.newEmpty(sumOfSizes(other)));
+
+        storage.forEachWhile(set.storage::add);//add is true for every distinct value
+        other.storage.forEachWhile(value -> {
+            set.storage.add(value);
+            return true;
+        });
+
+        return set;
+    }
+
+    /**
+     * Construct and return the difference set: this - other
+     *
+     * @param other the other
+     * @return the difference
+     */
+    // Original sets should not be modified.
+    public Set<T> difference(Set<T> other) {
+        Set<T> set = new Set<>(storage.newEmpty(size()));
+
+        storage.forEachWhile(value -> {
+            if (!other.contains(value))
+                set.storage.add(value);
+            return true;
+        });
+
+        return set;
+
+    }
+
+    /**
+     * Construct and return the symmetric difference set
+     *
+     * @param other the other
+     * @return the symmetric Difference
+     */
+    // Original sets should not be modified.
+    public Set<T> symmetricDifference(Set<T> other) {
+        Set<T> set = new Set<>(storage.newEmpty(sumOfSizes(other)));
+
+        storage.forEachWhile(value -> {
+            if (!other.contains(value))
+                set.storage.add(value);
+            return true;
+        });
+        other.storage.forEachWhile(value -> {
+            if (!contains(value))
+                set.storage.add(value);
+            return true;
+        });
+
+        return set;
+    }
+
+    /**
+     * Return true if this set is a subset of other
+     *
+     * @param other the other
+     * @return true, if is subset
+     */
+    // return false otherwise.
+    public boolean isSubset(Set<T> other) {
+        if (size() > other.size())
+            return false;//some value of this can't be in other
+
+        return storage.forEachWhile(other::contains);
+    }
+
+    /**
+     * Return true if there is no overlap between this set and other; return false otherwise
+     * Only the smaller set is walked, and the walk stops at the first common value
+     *
+     * @param other the other
+     * @return true, if is disjoint
+     */
+    public boolean isDisjoint(Set<T> other) {
+        Set<T> small = size() <= other.size() ? this : other;
+        Set<T> big = small == this ? other : this;
+
+        return small.storage.forEachWhile(value -> !big.contains(value));
+    }
+
+    /**
+     * Size of this plus size of other, capped so presizing can't overflow
+     *
+     * @param other the other
+     * @return the capped sum
+     */
+    private int sumOfSizes(Set<T> other) {
+        return (int) Math.min((long) size() + other.size(), Integer.MAX_VALUE);
+    }
+
+    // ----------------------------
+    // Main Method For Your Testing 
+    // ----------------------------
+
+    public static void main(String args[]){
+        // arrays only used for testing here
+        Integer[] data1 = { 1, 2, 3,   5,    7 };
+        Integer[] data2 = {    2,   4, 5, 6    };
+        String[] duplicate = {"a","a","a","b","c","b","c","d","a","e","c","b"};
+        Set<Integer> set1 = new Set<>();
+        Set<Integer> set2 = new Set<>();
+        Set<String> noduplicate = new Set<>();
+
+        //addAll
+        if (set1.addAll(java.util.Arrays.asList(data1))==5 &&
+                set2.addAll(java.util.Arrays.asList(data2))==4 &&
+                noduplicate.addAll(java.util.Arrays.asList(duplicate)) == 5){
+            System.out.println("Yay 1");
+        }
+
+        //System.out.println(set1);
+        //System.out.println(set2);
+
+        Set<Integer> set3 = set1.intersection(set2);
+        //System.out.println(set3);  //should have 2 and 5 only
+        if (set3.contains(2) && set3.contains(5) && !set3.contains(1) && set3.size()==2){
+            System.out.println("Yay 2");
+        }
+
+        Set<Integer> set4 = set1.union(set2);
+        //System.out.println(set4);  //should have 1,2,3,4,5,6,7 (not necessarily in that order)
+        boolean ok = true;
+        for (int i=1;i<8;i++){
+            ok = ok && set4.contains(i);
+        }
+        if (ok && set4.size()==7){
+            System.out.println("Yay 3");
+        }
+
+        Set<Integer> set5 = set1.difference(set2);
+        //System.out.println(set5);  //should have 1,3,7 (unordered)
+        if (set5.size()==3 && set5.contains(1) && set5.contains(3) && set5.contains(7)
+                && !set5.contains(2) && !set5.contains(5) && !set5.contains(4)){
+            System.out.println("Yay 4");
+        }
+
+        Set<Integer> set6 = set1.symmetricDifference(set2);
+        //System.out.println(set6);  // should have 1,3,4,6,7 (unordered) done
+
+        if (!set1.isSubset(set2) && set3.isSubset(set2)
+                && !set1.isDisjoint(set2) && set5.isDisjoint(set2)){
+            System.out.println("Yay 5");
+        }
+
+        //the same operations on an open-addressing engine
+        Set<Integer> oa1 = new Set<>(new OpenAddressingTable<Integer>(0));
+        Set<Integer> oa2 = new Set<>(new OpenAddressingTable<Integer>(0));
+        oa1.addAll(java.util.Arrays.asList(data1));
+        oa2.addAll(java.util.Arrays.asList(data2));
+        Set<Integer> oa3 = oa1.intersection(oa2);
+        Set<Integer> oa4 = oa1.union(oa2);
+        Set<Integer> oa5 = oa1.difference(oa2);
+        Set<Integer> oa6 = oa1.symmetricDifference(oa2);
+        ok = oa3.size() == 2 && oa3.contains(2) && oa3.contains(5)
+                && oa4.size() == 7 && oa5.size() == 3 && oa5.contains(7) && !oa5.contains(2)
+                && oa6.size() == 5 && oa6.contains(4) && !oa6.contains(5)
+                && !oa1.isSubset(oa2) && oa3.isSubset(oa2) && !oa1.isDisjoint(oa2) && oa5.isDisjoint(oa2)
+                && oa1.remove(1) && !oa1.contains(1) && oa1.toArray().length == 4;
+        for (int i = 1; i < 8; i++)
+            ok = ok && oa4.contains(i);
+        if (ok){
+            System.out.println("Yay 6");
+        }
+
+        //results are presized: a big union or intersection never rehashes
+        Set<Integer> big1 = new Set<>();
+        Set<Integer> big2 = new Set<>();
+        for (int i = 0; i < 20000; i++){
+            big1.add(i);
+            if (i % 3 == 0)
+                big2.add(i + 10000);
+        }
+        Set<Integer> u = big1.union(big2);
+        Set<Integer> n = big2.intersection(big1);
+        HashTable<Integer> uTable = (HashTable<Integer>) u.storage;
+        int uLength = uTable.getLength();
+        ok = u.size() == 23333 && n.size() == 3334 && n.isSubset(big1) && n.isSubset(big2)
+                && !big1.isSubset(n) && big1.difference(big2).size() == 16666
+                && big1.symmetricDifference(big2).size() == 19999
+                && big1.isDisjoint(new Set<>()) && !big2.isDisjoint(big1) && n.intersection(n).size() == 3334;
+        for (int i = 0; i < 30000; i++)
+            ok = ok && u.contains(i) == (i < 20000 || i % 3 == 1);
+        if (ok && uLength == (20000 + 6667) * 5 / 4 + 1 && uTable.getLength() == uLength){
+            System.out.println("Yay 7");
+        }
+
+        //iteration and streams
+        long sum = 0;
+        for (int v : big1)
+            sum += v;
+        ok = sum == 19999L * 20000 / 2
+                && big1.stream().parallel().mapToLong(Integer::longValue).sum() == sum
+                && big1.parallelStream().filter(v -> v % 2 == 0).count() == 10000
+                && big1.stream().count() == 20000 && oa4.stream().distinct().count() == 7
+                && u.stream().parallel().filter(big2::contains).count() == big2.size();
+        if (ok){
+            System.out.println("Yay 8");
+        }
+
+        //presized set and bulk addAll
+        java.util.List<Integer> many = new java.util.ArrayList<>();
+        for (int i = 0; i < 100000; i++)
+            many.add(i * 7);
+        Set<Integer> loaded = new Set<>(5);
+        Set<Integer> hinted = new Set<>(100000);
+        int hintedLength = ((HashTable<Integer>) hinted.storage).getLength();
+        Set<Integer> oaLoaded = new Set<>(new OpenAddressingTable<Integer>(0));
+        ok = loaded.addAll(many) == 100000 && hinted.addAll(many) == 100000 && oaLoaded.addAll(many) == 100000
+                && ((HashTable<Integer>) hinted.storage).getLength() == hintedLength
+                && loaded.contains(7 * 99999) && !loaded.contains(8) && hinted.isSubset(loaded)
+                && loaded.isSubset(oaLoaded) && oaLoaded.isSubset(hinted) && loaded.addAll(many) == 0;
+        if (ok){
+            System.out.println("Yay 9");
+        }
+
+        //sorted iteration, merged in place for HashTable, sorted copy otherwise
+        ok = true;
+        for (Set<Integer> s : java.util.Arrays.asList(u, oaLoaded, new Set<Integer>())) {
+            Object[] expected = s.toArray();
+            java.util.Arrays.sort(expected);
+            int i = 0;
+            for (Iterator<Integer> it = s.sortedIterator(); it.hasNext(); )
+                ok = ok && i < expected.length && it.next().equals(expected[i++]);
+            ok = ok && i == expected.length;
+        }
+        if (ok){
+            System.out.println("Yay 10");
+        }
+
+        //range and floor/ceiling queries, on both engines
+        ok = new Set<Integer>().first() == null && big2.rangeQuery(5, 5).size() == 0
+                && big2.rangeQuery(null, 5).size() == 0;
+        for (Set<Integer> s : java.util.Arrays.asList(big2, new Set<>(new OpenAddressingTable<Integer>(0)).union(big2))) {
+            Set<Integer> range = s.rangeQuery(10001, 10100);//10000 + 3k, from 10003 to 10099
+            ok = ok && range.size() == 33 && range.contains(10003) && range.contains(10099) && !range.contains(10000)
+                    && s.floor(10001) == 10000 && s.floor(10000) == 10000 && s.ceiling(10001) == 10003
+                    && s.floor(9999) == null && s.ceiling(29999) == null
+                    && s.first() == 10000 && s.last() == 29998;
+        }
+        if (ok){
+            System.out.println("Yay 11");
+        }
+
+        //snapshots through a file, from either engine
+        try {
+            java.nio.file.Path file = java.nio.file.Files.createTempFile("forest", ".snapshot");
+            big1.writeSnapshot(file, SnapshotCodec.INTEGER);
+            Set<Integer> restored = Set.readSnapshot(file, SnapshotCodec.INTEGER);
+            ok = restored.size() == big1.size() && restored.isSubset(big1)
+                    && ((HashTable<Integer>) restored.storage).getLength() == ((HashTable<Integer>) big1.storage).getLength();
+            oaLoaded.writeSnapshot(file, SnapshotCodec.INTEGER);//replaces the first one
+            restored = Set.readSnapshot(file, SnapshotCodec.INTEGER);
+            ok = ok && restored.size() == oaLoaded.size() && restored.isSubset(oaLoaded);
+            java.nio.file.Files.delete(file);
+        } catch (IOException e) {
+            ok = false;
+        }
+        if (ok){
+            System.out.println("Yay 12");
+        }
+
+        //point-in-time views while the set keeps changing
+        HashTable<Integer> cow = HashTable.withExpectedSize(1000);
+        cow.setPathCopying(true);
+        Set<Integer> live = new Set<>(cow);
+        for (int i = 0; i < 1000; i++)
+            live.add(i);
+        Set<Integer> view = live.snapshot();
+        Set<Integer> copied = oaLoaded.snapshot();
+        for (int i = 0; i < 1000; i += 2)
+            live.remove(i);
+        live.add(5000);
+        oaLoaded.remove(oaLoaded.first());
+        ok = view.size() == 1000 && view.contains(0) && !view.contains(5000) && live.size() == 501
+                && copied.size() == oaLoaded.size() + 1 && view.intersection(live).size() == 500;
+        try {
+            view.add(7000);
+            ok = false;
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        if (ok){
+            System.out.println("Yay 13");
+        }
+
+    }
+
+}
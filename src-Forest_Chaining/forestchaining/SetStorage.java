@@ -0,0 +1,212 @@
+package forestchaining;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+
+/**
+ * The storage engine behind a Set.
+ * HashTable is the default engine; any other engine only has to
+ * provide these operations for the whole Set API to work on top of it.
+ * Iterators walk the engine in place and, unless an engine says otherwise,
+ * fail fast with a ConcurrentModificationException once it is changed.
+ *
+ * @param <T> the generic type
+ */
+interface SetStorage<T extends Comparable<T>> extends Iterable<T> {
+
+    /**
+     * Return the number of values stored
+     *
+     * @return the size
+     */
+    int size();
+
+    /**
+     * Adds value, unless it is null or already present
+     *
+     * @param value the value
+     * @return true, if added
+     */
+    boolean add(T value);
+
+    /**
+     * Checks whether value is stored
+     *
+     * @param value the value
+     * @return true, if present
+     */
+    boolean contains(T value);
+
+    /**
+     * Removes value if it is stored
+     *
+     * @param value the value
+     * @return true, if removed
+     */
+    boolean remove(T value);
+
+    /**
+     * Adds every value of c, skipping nulls and duplicates
+     * This one adds them one by one; engines that can make room
+     * for the whole batch up front should override it
+     *
+     * @param c the values
+     * @return the number of values added
+     */
+    default int addAll(Collection<? extends T> c) {
+        int count = 0;
+        for (T value : c) {
+            if (add(value))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns an array of all values, its length is size()
+     *
+     * @return the object[]
+     */
+    Object[] toArray();
+
+    /**
+     * Applies action to the stored values, in place, until it returns false
+     * The action must not add or remove values of this engine
+     *
+     * @param action the action
+     * @return true if every value was visited, false if the action stopped early
+     */
+    boolean forEachWhile(Predicate<? super T> action);
+
+    /**
+     * Iterates the values in ascending compareTo order
+     * This one sorts a copy of toArray(); engines that keep their
+     * values ordered should override it and stream them in place
+     *
+     * @return the iterator
+     */
+    @SuppressWarnings("unchecked")
+    default Iterator<T> sortedIterator() {
+        Object[] values = toArray();
+        Arrays.sort(values);
+        return (Iterator<T>) (Iterator<?>) Arrays.asList(values).iterator();
+    }
+
+    /**
+     * Applies action to the values in [lo, hi) until it returns false
+     * This one scans every value; engines with ordered chains should
+     * override it and skip what is out of range
+     *
+     * @param lo the lowest value, inclusive
+     * @param hi the highest value, exclusive
+     * @param action the action
+     * @return true if every value in range was visited, false if the action stopped early
+     */
+    default boolean forEachInRange(T lo, T hi, Predicate<? super T> action) {
+        if (lo == null || hi == null)
+            return true;
+        return forEachWhile(value -> value.compareTo(lo) < 0 || value.compareTo(hi) >= 0 || action.test(value));
+    }
+
+    /**
+     * Returns the biggest value not bigger than value
+     * This one scans every value
+     *
+     * @param value the value
+     * @return the floor, null if there is none or value is null
+     */
+    default T floor(T value) {
+        return value == null ? null : closest(value, -1);
+    }
+
+    /**
+     * Returns the smallest value not smaller than value
+     * This one scans every value
+     *
+     * @param value the value
+     * @return the ceiling, null if there is none or value is null
+     */
+    default T ceiling(T value) {
+        return value == null ? null : closest(value, 1);
+    }
+
+    /**
+     * Returns the smallest value
+     * This one scans every value
+     *
+     * @return the first value, null if empty
+     */
+    default T first() {
+        return closest(null, 1);
+    }
+
+    /**
+     * Returns the biggest value
+     * This one scans every value
+     *
+     * @return the last value, null if empty
+     */
+    default T last() {
+        return closest(null, -1);
+    }
+
+    /**
+     * Scan behind the default floor/ceiling/first/last
+     *
+     * @param bound the bound, null for none
+     * @param side 1 for the smallest value not below bound, -1 for the biggest not above it
+     * @return the value, null if there is none
+     */
+    private T closest(T bound, int side) {
+        ArrayList<T> best = new ArrayList<>(1);
+        forEachWhile(value -> {
+            if (bound != null && Integer.signum(value.compareTo(bound)) * side < 0)
+                return true;//on the wrong side of bound
+            if (best.isEmpty())
+                best.add(value);
+            else if (Integer.signum(value.compareTo(best.get(0))) * side < 0)
+                best.set(0, value);
+            return true;
+        });
+        return best.isEmpty() ? null : best.get(0);
+    }
+
+    /**
+     * Returns a spliterator over the values, reporting SIZED, DISTINCT and NONNULL
+     * This one splits off batches of the iterator; engines that can divide
+     * their own storage should override it
+     *
+     * @return the spliterator
+     */
+    default Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    /**
+     * Creates a new, empty engine of the same kind and configuration,
+     * sized so that expectedSize values fit without a rehash
+     *
+     * @param expectedSize the expected number of values
+     * @return the empty engine
+     */
+    SetStorage<T> newEmpty(int expectedSize);
+
+    /**
+     * Returns an engine holding the values in this one right now, which
+     * later changes to this one do not affect
+     * By default a full copy; HashTable shares its structure instead
+     *
+     * @return the snapshot
+     */
+    default SetStorage<T> snapshot() {
+        SetStorage<T> copy = newEmpty(size());
+        forEachWhile(copy::add);//add is true for every distinct value
+        return copy;
+    }
+
+}
@@ -0,0 +1,1001 @@
+package forestchaining;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * The Class SimpleBST for a binary search tree implementation.
+ *
+ * @param <T> the generic type
+ */
+class SimpleBST<T extends Comparable<T>> implements Chain<T> {
+
+   
+    // bad practice to have public inst. variables, but we want to test this...
+    // Root of tree
+    public Node<T> root;
+
+    // size of the tree (the number of nodes)
+    public int size;
+
+    // nodes from the root down to the last change, filled by insert and remove
+    // to fix the counters above it; one per thread, shared by every tree, so
+    // the many small chains of a table don't each keep one
+    private static final ThreadLocal<Node<?>[]> PATH = ThreadLocal.withInitial(() -> new Node<?>[32]);
+
+    /**
+     * Total elements in bst
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * binary tree node class
+     *
+     * @param <T> is the generic type
+     */
+    public static class Node<T> {
+        T data;
+        Node<T> left, right;
+        int height;//height of the subtree rooted here
+        int leaves = 1;//leaves of the subtree, counted the way numLeaves() counts them
+
+        /**
+         * Instantiates a new node
+         *
+         * @param data is the data
+         */
+        public Node(T data) {this.data = data;}
+
+        /**
+         * Instantiates a new node
+         *
+         * @param data the data
+         * @param l the left node
+         * @param r the right node
+         */
+        public Node(T data, Node<T> l, Node<T> r) {
+            this.data = data;this.left = l;this.right = r;
+            update();
+        }
+
+        /**
+         * Recomputes height and leaves from the children
+         *
+         * @return true if either of them changed
+         */
+        boolean update() {
+            int newHeight = 1 + Math.max(height(left), height(right));
+            int newLeaves = (left == null || right == null) ? 1 : left.leaves + right.leaves;
+            boolean changed = newHeight != height || newLeaves != leaves;
+            height = newHeight;
+            leaves = newLeaves;
+            return changed;
+        }
+    }
+
+    /**
+     * Height of a subtree, -1 for null
+     *
+     * @param t the subtree root
+     * @return the height
+     */
+    static int height(Node<?> t) {
+        return t == null ? -1 : t.height;
+    }
+
+    /**
+     * Stores node at depth in path, growing it (and the thread's copy) as needed
+     *
+     * @param path the thread's path
+     * @param depth the depth
+     * @param node the node
+     * @return the path, a longer one if it grew
+     */
+    private static Node<?>[] record(Node<?>[] path, int depth, Node<?> node) {
+        if (depth == path.length) {
+            path = Arrays.copyOf(path, depth * 2);
+            PATH.set(path);
+        }
+        path[depth] = node;
+        return path;
+    }
+
+    /**
+     * Updates the recorded nodes bottom-up, up to the first one whose
+     * counters did not change, since nothing above it can change either,
+     * and clears them
+     *
+     * @param path the recorded nodes, from the root down
+     * @param depth the number of recorded nodes
+     */
+    private static void fix(Node<?>[] path, int depth) {
+        boolean changed = true;
+        for (int i = depth - 1; i >= 0; i--) {
+            if (changed)
+                changed = path[i].update();
+            path[i] = null;//don't keep removed values reachable
+        }
+    }
+
+    /**
+     * Clears the recorded nodes after a walk that changed nothing
+     *
+     * @param path the recorded nodes
+     * @param depth the number of recorded nodes
+     */
+    private static void clear(Node<?>[] path, int depth) {
+        Arrays.fill(path, 0, depth, null);
+    }
+
+
+    /**
+     * checks if value is present int bst
+     *
+     * @param value is the value
+     * @return Return true if value is in tree, false if value is not in tree or if value is null
+     */
+    // O(H): H as the tree height
+    public boolean contains(T value) {
+        if (value == null)
+            return false;
+
+        Node<T> current = root;
+
+        // find
+        while (current != null) {
+            int diff = current.data.compareTo(value);
+            if (diff == 0)//when found
+                return true;
+            else if (diff < 0)
+                current = current.right;//check right sub tree
+            else
+                current = current.left;//check left subtree
+        }
+
+        return false;//not found
+    }
+
+
+    /**
+     * Looks value up like contains, counting the compareTo calls it takes
+     *
+     * @param value is the value
+     * @return the number of compareTo calls if value is in tree,
+     * or its bitwise complement if it is not
+     */
+    // O(H): H as the tree height
+    public int probe(T value) {
+        if (value == null)
+            return ~0;
+
+        Node<T> current = root;
+        int compares = 0;
+        while (current != null) {
+            compares++;
+            int diff = current.data.compareTo(value);
+            if (diff == 0)
+                return compares;
+            current = diff < 0 ? current.right : current.left;
+        }
+        return ~compares;
+    }
+
+    /**
+     * Inserts value into tree
+     * No duplicates allowed; no null value allowed
+     *
+     * @param value is the value
+     * @return true, for a successful insertion
+     */
+    // O(H): H as the tree height, iterative with one compareTo per level
+    public boolean insert(T value) {
+        if (value == null)
+            return false;
+
+        if (root == null) {
+            root = new Node<>(value);
+            size++;
+            return true;
+        }
+
+        Node<?>[] path = PATH.get();
+        Node<T> current = root;
+        int depth = 0;
+        while (true) {
+            path = record(path, depth++, current);
+            int diff = value.compareTo(current.data);
+            if (diff < 0) {
+                if (current.left == null) {
+                    current.left = new Node<>(value);//attach as left child
+                    break;
+                }
+                current = current.left;
+            } else if (diff > 0) {
+                if (current.right == null) {
+                    current.right = new Node<>(value);//attach as right child
+                    break;
+                }
+                current = current.right;
+            } else {
+                clear(path, depth);
+                return false;//duplicate
+            }
+        }
+        size++;
+        fix(path, depth);
+        return true;
+    }
+
+    /**
+     * Removes value from tree
+     * Returns false if value cannot be removed
+     * or values not in tree or null values
+     *
+     * @param value is the value to remove
+     * @return true for a successful removal
+     */
+    // O(H): H as the tree height, iterative with one compareTo per level
+    public boolean remove(T value) {
+        if (value == null)
+            return false;
+
+        Node<?>[] path = PATH.get();
+        Node<T> parent = null;
+        Node<T> current = root;
+        int depth = 0;
+        while (current != null) {
+            int diff = value.compareTo(current.data);
+            if (diff == 0)
+                break;
+            path = record(path, depth++, current);
+            parent = current;
+            current = diff < 0 ? current.left : current.right;
+        }
+        if (current == null) {
+            clear(path, depth);
+            return false;//not in tree
+        }
+
+        size--;//update size
+        if (current.left != null && current.right != null) {// Two children
+            path = record(path, depth++, current);
+            Node<T> maxParent = current;
+            Node<T> max = current.left;
+            while (max.right != null) {//the predecessor is the right-most node of the left subtree
+                path = record(path, depth++, max);
+                maxParent = max;
+                max = max.right;
+            }
+            current.data = max.data;//the predecessor takes its place
+            if (maxParent == current)
+                current.left = max.left;
+            else
+                maxParent.right = max.left;
+        } else {
+            Node<T> child = (current.left != null) ? current.left : current.right;
+            if (parent == null)
+                root = child;
+            else if (parent.left == current)
+                parent.left = child;
+            else
+                parent.right = child;
+        }
+        fix(path, depth);
+        return true;
+    }
+
+    /**
+     * Returns the biggest value in the tree rooted at t
+     * Returns null if tree is null
+     *
+     * @param <T> the generic type
+     * @param t the root
+     * @return the max
+     */
+    // O(H): H as the tree height
+    public static <T> T findMax(Node<T> t) {
+        if (t == null)
+            return null;
+        while (t.right != null)
+            t = t.right;//traverse as far right
+        return t.data;//right-most node found
+    }
+
+    /**
+     * Removes the biggest value in the binary search tree rooted at t
+     *
+     * @param <T> the generic type
+     * @param t the tree root
+     * @return he tree root after removal
+     */
+    // O(H): H as the tree height
+    public static <T> Node<T> removeMax(Node<T> t) {
+        if (t == null)
+            return null;
+        else if (t.right == null)
+            return t.left;// the root is the max, its left subtree remains
+
+        ArrayDeque<Node<T>> spine = new ArrayDeque<>();
+        Node<T> parent = t;
+        spine.push(parent);
+        while (parent.right.right != null) {
+            parent = parent.right;
+            spine.push(parent);
+        }
+        parent.right = parent.right.left;//unlink the right-most node
+        while (!spine.isEmpty() && spine.pop().update())
+            ;//fix the counters up the right spine
+        return t;
+    }
+
+
+    /**
+     * Returns the in-order predecessor of t's data in the tree with t as root
+     * The in-order predecessor is the biggest value that is smaller than t's data
+     * Returns null if t's data is the smallest or if tree is null
+     *
+     * @param <T> the generic type
+     * @param t the tree root
+     * @return the predecessor
+     */
+    // O(H): H as the tree height
+    public static <T> T findPredecessor(Node<T> t) {
+        if(t == null)
+            return null;
+        else
+            return findMax(t.left);//call to helper method to find the right most node of the left sub-tree
+    }
+
+    /**
+     * Returns the smallest value in the tree rooted at t
+     * Returns null if tree is null
+     *
+     * @param <T> the generic type
+     * @param t the root
+     * @return the min
+     */
+    // O(H): H as the tree height
+    public static <T> T findMin(Node<T> t) {
+        if (t == null)
+            return null;
+        while (t.left != null)
+            t = t.left;//traverse as far left
+        return t.data;
+    }
+
+    /**
+     * Returns the biggest value that is not bigger than value
+     * in the tree rooted at t
+     *
+     * @param <T> the generic type
+     * @param t the root
+     * @param value the value
+     * @return the floor, null if there is none or value is null
+     */
+    // O(H): H as the tree height
+    static <T extends Comparable<T>> T floor(Node<T> t, T value) {
+        if (value == null)
+            return null;
+
+        T best = null;
+        while (t != null) {
+            int diff = t.data.compareTo(value);
+            if (diff == 0)
+                return t.data;
+            if (diff < 0) {
+                best = t.data;//a candidate, bigger ones can only be on the right
+                t = t.right;
+            } else
+                t = t.left;
+        }
+        return best;
+    }
+
+    /**
+     * Returns the smallest value that is not smaller than value
+     * in the tree rooted at t
+     *
+     * @param <T> the generic type
+     * @param t the root
+     * @param value the value
+     * @return the ceiling, null if there is none or value is null
+     */
+    // O(H): H as the tree height
+    static <T extends Comparable<T>> T ceiling(Node<T> t, T value) {
+        if (value == null)
+            return null;
+
+        T best = null;
+        while (t != null) {
+            int diff = t.data.compareTo(value);
+            if (diff == 0)
+                return t.data;
+            if (diff > 0) {
+                best = t.data;//a candidate, smaller ones can only be on the left
+                t = t.left;
+            } else
+                t = t.right;
+        }
+        return best;
+    }
+
+    /**
+     * Applies action, in order, to the values in [lo, hi) of the tree rooted
+     * at t until it returns false
+     * Subtrees entirely outside the range are never entered
+     *
+     * @param <T> the generic type
+     * @param t the root
+     * @param lo the lowest value, inclusive
+     * @param hi the highest value, exclusive
+     * @param action the action
+     * @return true if every value in range was visited, false if the action stopped early
+     */
+    // O(H + K): H as the tree height, K as the values in range
+    static <T extends Comparable<T>> boolean forEachInRange(Node<T> t, T lo, T hi, Predicate<? super T> action) {
+        if (lo == null || hi == null || lo.compareTo(hi) >= 0)
+            return true;//empty range
+
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        while (t != null || !stack.isEmpty()) {
+            while (t != null) {//go left while the left subtree may hold values >= lo
+                if (t.data.compareTo(lo) < 0)
+                    t = t.right;//t and its left subtree are below the range
+                else {
+                    stack.push(t);
+                    t = t.left;
+                }
+            }
+            if (stack.isEmpty())
+                break;
+            t = stack.pop();
+            if (t.data.compareTo(hi) >= 0)
+                return true;//in order, so everything after is past the range too
+            if (!action.test(t.data))
+                return false;
+            t = t.right;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the biggest value not bigger than value
+     *
+     * @param value the value
+     * @return the floor, null if there is none
+     */
+    // O(H): H as the tree height
+    public T floor(T value) {
+        return floor(root, value);
+    }
+
+    /**
+     * Returns the smallest value not smaller than value
+     *
+     * @param value the value
+     * @return the ceiling, null if there is none
+     */
+    // O(H): H as the tree height
+    public T ceiling(T value) {
+        return ceiling(root, value);
+    }
+
+    /**
+     * Returns the smallest value
+     *
+     * @return the first value, null if empty
+     */
+    // O(H): H as the tree height
+    public T first() {
+        return findMin(root);
+    }
+
+    /**
+     * Returns the biggest value
+     *
+     * @return the last value, null if empty
+     */
+    // O(H): H as the tree height
+    public T last() {
+        return findMax(root);
+    }
+
+    /**
+     * Applies action, in order, to the values in [lo, hi) until it returns false
+     *
+     * @param lo the lowest value, inclusive
+     * @param hi the highest value, exclusive
+     * @param action the action
+     * @return true if every value in range was visited, false if the action stopped early
+     */
+    // O(H + K): H as the tree height, K as the values in range
+    public boolean forEachInRange(T lo, T hi, Predicate<? super T> action) {
+        return forEachInRange(root, lo, hi, action);
+    }
+
+    /**
+     * Returns the height of the tree
+     * Returns -1 for null trees
+     *
+     * @return the height
+     */
+    // O(1): heights are kept in the nodes
+    public int height() {
+        return height(root);
+    }
+
+    /**
+     * Returns the number of leaf nodes in the tree
+     * Returns zero for null trees
+     *
+     * @return the number of leaf nodes
+     */
+    // O(1): leaf counts are kept in the nodes
+    public int numLeaves() {
+        return root == null ? 0 : root.leaves;
+    }
+
+    // Return a string representation of the tree
+    // follows IN-ORDER traversal to include data of all nodes.
+    // Includes one space after each node.
+    // O(N): N is the tree size
+    //
+    // Returns empty string "" for null trees.
+    // Check main method below for more examples.
+    //
+    // Example 1: a single-node tree with the root data as "A":
+    // toString() should return "A "
+    //
+    // Example 2: a tree with three nodes: B
+    // / \
+    // A C
+    // toString() should return "A B C "
+    /**
+     * Inorder string representation of the tree
+     */
+    public String toString() {
+        if (root == null)
+            return " ";
+
+        StringBuilder s = new StringBuilder();
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> currentNode = root;
+        while (currentNode != null || !stack.isEmpty()) {
+            while (currentNode != null) {//visit left subtree first
+                stack.push(currentNode);
+                currentNode = currentNode.left;
+            }
+            currentNode = stack.pop();
+            s.append(currentNode.data).append(' ');
+            currentNode = currentNode.right;
+        }
+        return s.toString();
+    }
+
+
+    // Return an array representation of all values
+    // following PRE-ORDER traversal.
+    // - The root value of the tree should be element 0
+    // in the array.
+    // - The length of the array should be the size
+    // of tree.
+    // O(N): N is the tree size
+    //
+    // Example 1: a single-node tree with the root data as "A"
+    // toArray() should return {"A"}
+    //
+    // Example 2: a tree with three nodes: B
+    // / \
+    // A C
+    // toArray() should return {"B","A","C"}
+    // Check main method below for more examples.
+
+    /**
+     * Return an array representation of all values
+     * following pre-order traversal
+     *
+     * @return the object[]
+     */
+    // @SuppressWarnings("unchecked")
+    public Object[] toArray() {
+        Object[] array = new Object[size];//create new array object of size
+        toArray(0, array, root); //set root to array 0
+        return array;
+    }
+
+    /**
+     * To array helper
+     *
+     *
+     * @param i the index in the array
+     * @param array the array
+     * @param currentNode the current node
+     * @return the new index after insertion
+     */
+    public int toArray(int i, Object[] array, Node<T> currentNode) {
+        if(currentNode == null)
+            return i;
+
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        stack.push(currentNode);
+        while (!stack.isEmpty()) {
+            currentNode = stack.pop();
+            array[i++] = currentNode.data;//set to follow pre-order traversal
+            if (currentNode.right != null)
+                stack.push(currentNode.right);
+            if (currentNode.left != null)
+                stack.push(currentNode.left);
+        }
+        return i;
+    }
+
+    /**
+     * Applies action to the values in pre-order until it returns false
+     *
+     * @param action the action
+     * @return true if every value was visited, false if the action stopped early
+     */
+    // O(N): N is the tree size
+    public boolean forEachWhile(Predicate<? super T> action) {
+        for (Iterator<T> it = iterator(); it.hasNext(); ) {
+            if (!action.test(it.next()))
+                return false;
+        }
+        return true;
+    }
+
+
+
+    /**
+     * Fills the empty tree with values[from..to) in pre-order,
+     * rebuilding the tree toArray() came from
+     *
+     * @param values the values
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     */
+    // O(K): K as to - from, against O(K H) for inserting them one by one
+    public void load(Object[] values, int from, int to) {
+        root = fromPreOrder(values, from, to, false);
+        size = to - from;
+    }
+
+    /**
+     * Builds the tree whose pre-order is values[from..to)
+     * The stack holds the nodes still missing a right child; a value goes
+     * left of the top node, or right of the last node it is bigger than
+     * Counters are set bottom-up afterwards, in reverse pre-order
+     *
+     * @param <T> the generic type
+     * @param values the values, in pre-order
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     * @param avl true to build AVLNodes
+     * @return the root, null for an empty range
+     */
+    // O(K): K as to - from, every node is pushed and popped once
+    @SuppressWarnings("unchecked")
+    static <T extends Comparable<T>> Node<T> fromPreOrder(Object[] values, int from, int to, boolean avl) {
+        if (from >= to)
+            return null;
+
+        Node<T>[] nodes = new Node[to - from];
+        ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+        for (int i = from; i < to; i++) {
+            T value = (T) values[i];
+            Node<T> node = avl ? new BalancedBST.AVLNode<>(value) : new Node<>(value);
+            nodes[i - from] = node;
+
+            Node<T> parent = null;
+            while (!stack.isEmpty() && stack.peek().data.compareTo(value) < 0)
+                parent = stack.pop();
+            if (parent != null)
+                parent.right = node;
+            else if (!stack.isEmpty())
+                stack.peek().left = node;
+            stack.push(node);
+        }
+        for (int i = nodes.length - 1; i >= 0; i--)
+            nodes[i].update();//children come after their parent in pre-order
+        return nodes[0];
+    }
+
+    /**
+     * Iterates the values in pre-order, without copying the tree
+     *
+     * @return the iterator
+     */
+    public Iterator<T> iterator() {
+        return new PreOrderIterator<>(root);
+    }
+
+    /**
+     * Iterates the values in order, without copying the tree
+     *
+     * @return the iterator
+     */
+    public Iterator<T> sortedIterator() {
+        return new InOrderIterator<>(root);
+    }
+
+    /**
+     * Lazy pre-order iterator over linked nodes
+     * The stack only holds the right subtrees still to visit, O(H) of them
+     *
+     * @param <T> the generic type
+     */
+    static class PreOrderIterator<T> implements Iterator<T> {
+        private final ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+
+        /**
+         * Instantiates a new iterator
+         *
+         * @param root the root, may be null
+         */
+        PreOrderIterator(Node<T> root) {
+            if (root != null)
+                stack.push(root);
+        }
+
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        public T next() {
+            if (stack.isEmpty())
+                throw new NoSuchElementException();
+
+            Node<T> current = stack.pop();
+            if (current.right != null)
+                stack.push(current.right);
+            if (current.left != null)
+                stack.push(current.left);//left comes out first
+            return current.data;
+        }
+    }
+
+    /**
+     * Lazy in-order iterator over linked nodes
+     * The stack holds the ancestors still to visit, O(H) of them
+     *
+     * @param <T> the generic type
+     */
+    static class InOrderIterator<T> implements Iterator<T> {
+        private final ArrayDeque<Node<T>> stack = new ArrayDeque<>();
+
+        /**
+         * Instantiates a new iterator
+         *
+         * @param root the root, may be null
+         */
+        InOrderIterator(Node<T> root) {
+            pushLeft(root);
+        }
+
+        /**
+         * Pushes t and its chain of left children
+         *
+         * @param t the subtree, may be null
+         */
+        private void pushLeft(Node<T> t) {
+            for (; t != null; t = t.left)
+                stack.push(t);
+        }
+
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        public T next() {
+            if (stack.isEmpty())
+                throw new NoSuchElementException();
+
+            Node<T> current = stack.pop();
+            pushLeft(current.right);
+            return current.data;
+        }
+    }
+
+
+    //------------------------------
+    // Main Method For Your Testing 
+    //------------------------------
+    public static void main(String args[]){
+        SimpleBST<Integer> t = new SimpleBST<Integer>();
+
+        //build the tree / set the size manually
+        //only for testing purpose
+        Node<Integer> node = new Node<>(112);
+        Node<Integer> node2 = new Node<>(330);
+        node2 = new Node<>(440,node2,null);
+        node = new Node<>(310,node,node2);
+        t.root = node;
+        t.size = 4;
+
+        // Current tree:
+        //			  310
+        //           /   \
+        //        112     440
+        //                /
+        //              330
+
+
+        //checking basic features
+        if (t.root.data == 310 && t.contains(112) && !t.contains(211) && t.height() == 2){
+            System.out.println("Yay 1");
+        }
+
+        //checking more features
+        if (t.numLeaves() == 2 && SimpleBST.findMax(t.root)==440
+                && SimpleBST.findPredecessor(t.root) == 112){
+            System.out.println("Yay 2");
+        }
+
+        //toString and toArray
+        if (t.toString().equals("112 310 330 440 ") &&  t.toArray().length==t.size()
+                && t.toArray()[0].equals(310) && t.toArray()[1].equals(112)
+                && t.toArray()[2].equals(440) && t.toArray()[3].equals(330) ){
+            System.out.println("Yay 3");
+            //System.out.println(t.toString());
+        }
+
+        // start w/ an empty tree and insert to build the same tree as above
+        t = new SimpleBST<Integer>();
+        if (t.insert(310) && !t.insert(null) && t.size()==1 && t.height()==0
+                && t.insert(112) && t.insert(440) && t.insert(330) && !t.insert(330)
+        ){
+            System.out.println("Yay 4");
+        }
+
+        if (t.size()==4 && t.height()==2 && t.root.data == 310 &&
+                t.root.left.data == 112 && t.root.right.data==440
+                && t.root.right.left.data == 330){
+            System.out.println("Yay 5");
+        }
+
+        // more insertion
+        t.insert(465);
+        t.insert(321);
+        t.insert(211);
+
+        //			  310
+        //           /   \
+        //        112     440
+        //          \     /  \
+        //         211   330 465
+        //               /
+        //             321
+
+
+
+        //remove leaf (211), after removal:
+        //			  310
+        //           /   \
+        //        112     440
+        //                /  \
+        //               330 465
+        //               /
+        //             321
+
+        if (t.remove(211) && !t.contains(211) && t.size()==6 && t.height() == 3
+                && SimpleBST.findMax(t.root.left) == 112){
+            System.out.println("Yay 6");
+        }
+
+        //remove node w/ single child (330), after removal:
+        //			  310
+        //           /   \
+        //        112     440
+        //                /  \
+        //              321 465
+
+        if (t.remove(330) && !t.contains(330) && t.size()==5 && t.height() == 2
+                && t.root.right.left.data == 321){
+            System.out.println("Yay 7");
+        }
+
+        //remove node w/ two children (440), after removal:
+        //			  310
+        //           /   \
+        //        112     321
+        //                  \
+        //                 465
+
+        if ((t.root!=null) && SimpleBST.findPredecessor(t.root.right) == 321 && t.remove(440) && !t.contains(440)
+                && t.size()==4 && t.height() == 2 && t.root.right.data == 321){
+            System.out.println("Yay 8");
+        }
+
+        //a degenerate chain of sorted keys deeper than the recursive code could go
+        SimpleBST<Integer> deep = new SimpleBST<>();
+        boolean ok = true;
+        for (int i = 0; i < 40000; i++)
+            ok = ok && deep.insert(i);
+        Object[] array = deep.toArray();
+        ok = ok && !deep.insert(39999) && deep.height() == 39999 && deep.numLeaves() == 1
+                && array.length == 40000 && array[39999].equals(39999)
+                && deep.toString().endsWith(" 39998 39999 ") && deep.contains(30000);
+        for (int i = 39999; i >= 0; i -= 2)
+            ok = ok && deep.remove(i);
+        if (ok && deep.size() == 20000 && deep.height() == 19999 && !deep.contains(39999)
+                && deep.remove(0) && deep.root.data == 2){
+            System.out.println("Yay 9");
+        }
+
+        //height and leaves kept in the nodes match a full recount after random work
+        java.util.Random r = new java.util.Random(0);
+        SimpleBST<Integer> counted = new SimpleBST<>();
+        BalancedBST<Integer> balanced = new BalancedBST<>();
+        ok = true;
+        for (int i = 0; i < 20000; i++) {
+            int v = r.nextInt(300);
+            if (r.nextBoolean())
+                ok = ok && counted.insert(v) == balanced.insert(v);
+            else
+                ok = ok && counted.remove(v) == balanced.remove(v);
+            if (i % 100 == 0)
+                ok = ok && countersOk(counted.root) && countersOk(balanced.root);
+        }
+        removeMax(counted.root);
+        if (ok && countersOk(counted.root) && countersOk(balanced.root) && counted.numLeaves() > 1){
+            System.out.println("Yay 10");
+        }
+
+        //in-order iteration matches the in-order toString, for every shape
+        ok = !new SimpleBST<Integer>().sortedIterator().hasNext();
+        for (SimpleBST<Integer> tree : java.util.Arrays.asList(counted, balanced, t)) {
+            StringBuilder s = new StringBuilder();
+            for (Iterator<Integer> it = tree.sortedIterator(); it.hasNext(); )
+                s.append(it.next()).append(' ');
+            ok = ok && s.toString().equals(tree.toString());
+        }
+        if (ok){
+            System.out.println("Yay 11");
+        }
+
+        //floor, ceiling, first, last and range walks against a sorted copy
+        ok = new SimpleBST<Integer>().first() == null && new SimpleBST<Integer>().floor(1) == null
+                && counted.floor(null) == null;
+        java.util.TreeSet<Integer> reference = new java.util.TreeSet<>();
+        for (Iterator<Integer> it = counted.sortedIterator(); it.hasNext(); )
+            reference.add(it.next());
+        ok = ok && counted.first().equals(reference.first()) && counted.last().equals(reference.last());
+        for (int v = reference.first() - 3; v <= reference.last() + 3; v++) {
+            ok = ok && java.util.Objects.equals(counted.floor(v), reference.floor(v))
+                    && java.util.Objects.equals(counted.ceiling(v), reference.ceiling(v));
+            for (int w = v; w <= v + 40; w += 13) {
+                java.util.List<Integer> inRange = new java.util.ArrayList<>();
+                ok = ok && counted.forEachInRange(v, w, inRange::add)
+                        && inRange.equals(new java.util.ArrayList<>(reference.subSet(v, w)));
+            }
+        }
+        int[] seen = {0};
+        ok = ok && !counted.forEachInRange(reference.first(), reference.last(), x -> ++seen[0] < 2) && seen[0] == 2;
+        if (ok){
+            System.out.println("Yay 12");
+        }
+    }
+
+    /**
+     * Recounts height and leaves of every node, for testing
+     *
+     * @param t the subtree root
+     * @return true if every node holds the recounted values
+     */
+    private static boolean countersOk(Node<?> t) {
+        if (t == null)
+            return true;
+        int leaves = (t.left == null || t.right == null) ? 1 : t.left.leaves + t.right.leaves;
+        return countersOk(t.left) && countersOk(t.right)
+                && t.height == 1 + Math.max(height(t.left), height(t.right)) && t.leaves == leaves;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,111 @@
+package forestchaining;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary encoding of the values of a HashTable snapshot.
+ * A snapshot puts each value in the bucket its hashCode picked when it was
+ * written, so the values' hashCode must not change between runs
+ * (Integer, Long and String are fine; identity hash codes are not).
+ *
+ * @param <T> the generic type
+ */
+interface SnapshotCodec<T> {
+
+    /**
+     * Number of bytes write(value) puts
+     *
+     * @param value the value
+     * @return the byte count
+     */
+    int size(T value);
+
+    /**
+     * Encodes value at the position of out, which has size(value) bytes left
+     *
+     * @param value the value
+     * @param out the buffer
+     */
+    void write(T value, ByteBuffer out);
+
+    /**
+     * Decodes one value at the position of in
+     *
+     * @param in the buffer
+     * @return the value
+     */
+    T read(ByteBuffer in);
+
+    /**
+     * Four big-endian bytes per Integer
+     */
+    SnapshotCodec<Integer> INTEGER = new SnapshotCodec<Integer>() {
+        public int size(Integer value) {
+            return Integer.BYTES;
+        }
+
+        public void write(Integer value, ByteBuffer out) {
+            out.putInt(value);
+        }
+
+        public Integer read(ByteBuffer in) {
+            return in.getInt();
+        }
+    };
+
+    /**
+     * Eight big-endian bytes per Long
+     */
+    SnapshotCodec<Long> LONG = new SnapshotCodec<Long>() {
+        public int size(Long value) {
+            return Long.BYTES;
+        }
+
+        public void write(Long value, ByteBuffer out) {
+            out.putLong(value);
+        }
+
+        public Long read(ByteBuffer in) {
+            return in.getLong();
+        }
+    };
+
+    /**
+     * The UTF-8 bytes of a String, after their count
+     */
+    SnapshotCodec<String> STRING = new SnapshotCodec<String>() {
+        public int size(String value) {
+            int bytes = 0;
+            for (int i = 0; i < value.length(); i++) {//UTF-8 length without encoding
+                char c = value.charAt(i);
+                if (c < 0x80)
+                    bytes++;
+                else if (c < 0x800)
+                    bytes += 2;
+                else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else if (Character.isSurrogate(c))
+                    bytes++;//a lone surrogate is encoded as '?'
+                else
+                    bytes += 3;
+            }
+            return Integer.BYTES + bytes;
+        }
+
+        public void write(String value, ByteBuffer out) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.putInt(bytes.length);
+            out.put(bytes);
+        }
+
+        public String read(ByteBuffer in) {
+            byte[] bytes = new byte[in.getInt()];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+}
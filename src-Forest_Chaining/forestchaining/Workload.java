@@ -0,0 +1,391 @@
+package forestchaining;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * A reproducible stream of add/contains/remove operations for load testing
+ * Two choices shape a workload:
+ * - the key pool, e.g. spreadKeys (uniform over the int range),
+ * clusteredKeys (multiples of a stride, piling up in few buckets) or
+ * collidingKeys (strings that all share one hashCode)
+ * - the access pattern picking pool entries: UNIFORM, ZIPFIAN (a few hot
+ * keys get most of the operations) or SEQUENTIAL (the pool in order,
+ * wrapping around)
+ * The operations are generated from the seed before the clock starts,
+ * so every replay of a workload runs exactly the same stream
+ *
+ * @param <T> the key type
+ */
+class Workload<T extends Comparable<T>> {
+
+
+    /**
+     * How operations pick their key from the pool
+     */
+    enum Access {
+        UNIFORM, ZIPFIAN, SEQUENTIAL
+    }
+
+    // operation codes, stored in the low two bits of an encoded operation
+    static final int ADD = 0, CONTAINS = 1, REMOVE = 2;
+
+    private final T[] keys;
+    private final Access access;
+    private final long seed;
+    private int addPercent = 25, containsPercent = 50;//the rest removes
+    private double zipfExponent = 0.99;
+    private int prefill = 0;//pool entries added, untimed, before the stream
+
+    /**
+     * Instantiates a workload over a key pool
+     *
+     * @param keys the key pool, distinct keys
+     * @param access the access pattern
+     * @param seed the random seed
+     */
+    public Workload(T[] keys, Access access, long seed) {
+        if (keys.length == 0 || keys.length > (Integer.MAX_VALUE >> 2))
+            throw new IllegalArgumentException("key pool size " + keys.length);
+        this.keys = keys;
+        this.access = access;
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the operation mix; removes get the remaining percentage
+     *
+     * @param addPercent the percentage of adds
+     * @param containsPercent the percentage of contains
+     */
+    public void setMix(int addPercent, int containsPercent) {
+        if (addPercent < 0 || containsPercent < 0 || addPercent + containsPercent > 100)
+            throw new IllegalArgumentException("mix " + addPercent + "/" + containsPercent);
+        this.addPercent = addPercent;
+        this.containsPercent = containsPercent;
+    }
+
+    /**
+     * Sets the skew of the ZIPFIAN access pattern: key of rank k is
+     * picked with a probability proportional to 1 / k^exponent
+     *
+     * @param exponent the exponent, 0 for uniform
+     */
+    public void setZipfExponent(double exponent) {
+        this.zipfExponent = exponent;
+    }
+
+    /**
+     * Sets how many pool entries, from the start, are added before the timed stream
+     *
+     * @param count the count, at most the pool size
+     */
+    public void setPrefill(int count) {
+        this.prefill = Math.max(0, Math.min(count, keys.length));
+    }
+
+    /**
+     * Return the key pool
+     *
+     * @return the keys
+     */
+    public T[] getKeys() {
+        return keys;
+    }
+
+    /**
+     * Generates the operation stream; every call with the same
+     * settings returns the same stream
+     *
+     * @param operations the number of operations
+     * @return the operations, key index * 4 + operation code
+     */
+    int[] generate(int operations) {
+        Random r = new Random(seed);
+        int[] ops = new int[operations];
+        double[] cdf = access == Access.ZIPFIAN ? zipfCdf() : null;
+        int[] rank = access == Access.ZIPFIAN ? shuffledIndexes(r) : null;
+
+        for (int i = 0; i < operations; i++) {
+            int key;
+            if (access == Access.SEQUENTIAL)
+                key = i % keys.length;
+            else if (access == Access.UNIFORM)
+                key = r.nextInt(keys.length);
+            else {
+                int k = Arrays.binarySearch(cdf, r.nextDouble());
+                key = rank[k < 0 ? Math.min(~k, cdf.length - 1) : k];
+            }
+
+            int p = r.nextInt(100);
+            int op = p < addPercent ? ADD : p < addPercent + containsPercent ? CONTAINS : REMOVE;
+            ops[i] = key << 2 | op;
+        }
+        return ops;
+    }
+
+    /**
+     * Cumulative Zipf probabilities of the ranks 1 to keys.length
+     *
+     * @return the cdf, ending at 1
+     */
+    private double[] zipfCdf() {
+        double[] cdf = new double[keys.length];
+        double sum = 0;
+        for (int k = 0; k < cdf.length; k++) {
+            sum += 1 / Math.pow(k + 1, zipfExponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < cdf.length; k++)
+            cdf[k] /= sum;
+        return cdf;
+    }
+
+    /**
+     * A random order of the pool, so the hot keys are not just the first ones
+     *
+     * @param r the random source
+     * @return index of the key of each rank
+     */
+    private int[] shuffledIndexes(Random r) {
+        int[] rank = new int[keys.length];
+        for (int i = 0; i < rank.length; i++) {
+            int j = r.nextInt(i + 1);
+            rank[i] = rank[j];
+            rank[j] = i;
+        }
+        return rank;
+    }
+
+    /**
+     * Replays the workload against a storage engine
+     *
+     * @param storage the engine, usually empty
+     * @param operations the number of operations
+     * @return the result
+     */
+    public Result replay(SetStorage<T> storage, int operations) {
+        return replay(storage::add, storage::contains, storage::remove, storage, operations);
+    }
+
+    /**
+     * Replays the workload against a set
+     *
+     * @param set the set, usually empty
+     * @param operations the number of operations
+     * @return the result
+     */
+    public Result replay(Set<T> set, int operations) {
+        return replay(set::add, set::contains, set::remove, set.getStorage(), operations);
+    }
+
+    /**
+     * Prefills, then runs and times the operation stream
+     *
+     * @param add the add operation
+     * @param contains the contains operation
+     * @param remove the remove operation
+     * @param storage the engine behind them, for the final statistics
+     * @param operations the number of operations
+     * @return the result
+     */
+    private Result replay(Predicate<T> add, Predicate<T> contains, Predicate<T> remove,
+                          SetStorage<T> storage, int operations) {
+        for (int i = 0; i < prefill; i++)
+            add.test(keys[i]);
+        int[] ops = generate(operations);
+
+        Result result = new Result();
+        long start = System.nanoTime();
+        for (int i = 0; i < ops.length; i++) {
+            T key = keys[ops[i] >>> 2];
+            switch (ops[i] & 3) {
+                case ADD:
+                    result.adds++;
+                    if (add.test(key))
+                        result.added++;
+                    break;
+                case CONTAINS:
+                    result.lookups++;
+                    if (contains.test(key))
+                        result.found++;
+                    break;
+                default:
+                    result.removes++;
+                    if (remove.test(key))
+                        result.removed++;
+            }
+        }
+        result.nanos = System.nanoTime() - start;
+        result.size = storage.size();
+        if (storage instanceof HashTable)
+            result.chains = chainStats((HashTable<T>) storage);
+        return result;
+    }
+
+    /**
+     * One-line summary of the chains of a table
+     *
+     * @param table the table
+     * @return the summary
+     */
+    static String chainStats(HashTable<?> table) {
+        return String.format("length %d, chain size avg %.2f max %d, height avg %.2f max %d, leaves avg %.2f",
+                table.getLength(), table.avgTreeSize(true), table.minAndMaxTreeSize().second,
+                table.avgTreeHeight(true), table.minAndMaxTreeHeight().second, table.avgNumLeaves(true));
+    }
+
+    /**
+     * Counts and timing of one replay
+     */
+    static class Result {
+        long adds, added, lookups, found, removes, removed;
+        long nanos;
+        int size;//final number of values
+        String chains;//chain statistics, null unless the engine is a HashTable
+
+        /**
+         * Return the throughput
+         *
+         * @return operations per second
+         */
+        double opsPerSecond() {
+            return (adds + lookups + removes) * 1e9 / Math.max(nanos, 1);
+        }
+
+        public String toString() {
+            return String.format("%,.0f ops/s; add %d (%d new), contains %d (%d hits), remove %d (%d removed); size %d%s",
+                    opsPerSecond(), adds, added, lookups, found, removes, removed, size,
+                    chains == null ? "" : "; " + chains);
+        }
+    }
+
+    /**
+     * Distinct ints spread uniformly over the whole int range
+     *
+     * @param n the number of keys
+     * @param seed the random seed
+     * @return the keys
+     */
+    static Integer[] spreadKeys(int n, long seed) {
+        Random r = new Random(seed);
+        java.util.HashSet<Integer> seen = new java.util.HashSet<>();
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; ) {
+            int v = r.nextInt();
+            if (seen.add(v))
+                keys[i++] = v;
+        }
+        return keys;
+    }
+
+    /**
+     * The first n multiples of stride, in ascending order; like the ht3
+     * scenario of HashTable.main, they pile up in the buckets whose index
+     * shares a factor with stride under modulo indexing
+     *
+     * @param n the number of keys
+     * @param stride the stride
+     * @return the keys
+     */
+    static Integer[] clusteredKeys(int n, int stride) {
+        Integer[] keys = new Integer[n];
+        for (int i = 0; i < n; i++)
+            keys[i] = i * stride;
+        return keys;
+    }
+
+    /**
+     * n distinct strings with the same hashCode, in ascending order
+     * "Aa" and "BB" hash alike, so any sequence of these blocks does too;
+     * every key lands in one chain, whatever the table length or indexing
+     *
+     * @param n the number of keys
+     * @return the keys
+     */
+    static String[] collidingKeys(int n) {
+        int blocks = Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(n - 1, 1)));
+        String[] keys = new String[n];
+        StringBuilder s = new StringBuilder(blocks * 2);
+        for (int i = 0; i < n; i++) {
+            s.setLength(0);
+            for (int b = blocks - 1; b >= 0; b--)
+                s.append((i >>> b & 1) == 0 ? "Aa" : "BB");//"Aa" < "BB", so i's order is kept
+            keys[i] = s.toString();
+        }
+        return keys;
+    }
+
+
+    //--------------------------------
+    // Main Method For Your Testing
+    //--------------------------------
+    public static void main(String[] args) {
+        //same seed, same stream; the mix is respected
+        Workload<Integer> uniform = new Workload<>(spreadKeys(1000, 1), Access.UNIFORM, 7);
+        uniform.setMix(20, 70);
+        int[] ops = uniform.generate(100000);
+        int[] counts = new int[3];
+        for (int op : ops)
+            counts[op & 3]++;
+        if (Arrays.equals(ops, uniform.generate(100000)) && Math.abs(counts[ADD] - 20000) < 1000
+                && Math.abs(counts[CONTAINS] - 70000) < 1000 && Math.abs(counts[REMOVE] - 10000) < 1000) {
+            System.out.println("Yay 1");
+        }
+
+        //zipfian: the hottest key gets far more than its uniform share
+        Workload<Integer> zipf = new Workload<>(spreadKeys(1000, 1), Access.ZIPFIAN, 7);
+        int[] hits = new int[1000];
+        for (int op : zipf.generate(100000))
+            hits[op >>> 2]++;
+        Arrays.sort(hits);
+        if (hits[999] > 100000 / 20 && hits[0] < 100000 / 1000) {
+            System.out.println("Yay 2");
+        }
+
+        //sequential walks the pool in order and wraps around
+        Workload<Integer> sequential = new Workload<>(clusteredKeys(10, 20), Access.SEQUENTIAL, 7);
+        ops = sequential.generate(25);
+        boolean ok = sequential.getKeys()[9] == 180;
+        for (int i = 0; i < ops.length; i++)
+            ok = ok && ops[i] >>> 2 == i % 10;
+        if (ok) {
+            System.out.println("Yay 3");
+        }
+
+        //colliding strings: distinct, sorted, one hashCode
+        String[] colliding = collidingKeys(1000);
+        ok = new java.util.HashSet<>(Arrays.asList(colliding)).size() == 1000;
+        for (int i = 1; i < colliding.length; i++)
+            ok = ok && colliding[i].hashCode() == colliding[0].hashCode() && colliding[i - 1].compareTo(colliding[i]) < 0;
+        if (ok) {
+            System.out.println("Yay 4");
+        }
+
+        //replays agree with each other and with java.util.HashSet, and report chain statistics
+        Workload<String> adversarial = new Workload<>(colliding, Access.UNIFORM, 3);
+        adversarial.setMix(50, 30);
+        adversarial.setPrefill(100);
+        Result table = adversarial.replay(new HashTable<>(5), 20000);
+        Result balanced = adversarial.replay(new Set<String>(new HashTable<>(5, true)), 20000);
+        java.util.HashSet<String> expected = new java.util.HashSet<>(Arrays.asList(colliding).subList(0, 100));
+        long found = 0;
+        for (int op : adversarial.generate(20000)) {
+            String key = colliding[op >>> 2];
+            if ((op & 3) == ADD)
+                expected.add(key);
+            else if ((op & 3) == REMOVE)
+                expected.remove(key);
+            else if (expected.contains(key))
+                found++;
+        }
+        if (table.size == expected.size() && balanced.size == expected.size() && table.found == found
+                && balanced.found == found && table.added == balanced.added
+                && table.chains.contains("chain size avg " + String.format("%.2f", (double) expected.size()))
+                && table.opsPerSecond() > 0 && table.toString().contains("ops/s")) {
+            System.out.println("Yay 5");
+        }
+    }
+
+}